@@ -0,0 +1,180 @@
+package com.dwilliam.utils.processor;
+
+import com.dwilliam.utils.TryAdapter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the adapters of the interfaces annotated with {@link TryAdapter}.
+ * <p>
+ * Each adapter method calls the delegate inside {@code Try.newTry}, through a {@code TrySupplier}
+ * or, for {@code void} methods, a {@code TryProcedure}.
+ */
+@SupportedAnnotationTypes("com.dwilliam.utils.TryAdapter")
+public final class TryAdapterProcessor extends AbstractProcessor {
+
+    private static final String TRY = "com.dwilliam.utils.Try";
+    private static final String TRY_PROCEDURE = "com.dwilliam.utils.TryProcedure";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(TryAdapter.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@TryAdapter can only be applied to an interface");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (IOException e) {
+                error(type, "Cannot generate the adapter of " + type.getQualifiedName() + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String name = adapterName(type);
+        String qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+        String typeParameters = typeParameters(type.getTypeParameters());
+        String typeArguments = type.getTypeParameters().isEmpty() ? ""
+                : type.getTypeParameters().stream().map(p -> p.getSimpleName().toString()).collect(Collectors.joining(", ", "<", ">"));
+        String delegateType = type.getQualifiedName() + typeArguments;
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("/**\n * Adapter of {@link ").append(type.getQualifiedName())
+                .append("} returning the outcome of each call as a {@code Try}.\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(name).append(typeParameters).append(" {\n\n");
+        source.append("    private final ").append(delegateType).append(" delegate;\n\n");
+        source.append("    public ").append(name).append("(").append(delegateType).append(" delegate) {\n");
+        source.append("        this.delegate = java.util.Objects.requireNonNull(delegate);\n");
+        source.append("    }\n\n");
+        source.append("    public ").append(delegateType).append(" delegate() {\n");
+        source.append("        return this.delegate;\n");
+        source.append("    }\n");
+
+        Elements elements = this.processingEnv.getElementUtils();
+        List<ExecutableElement> objectMethods = ElementFilter.methodsIn(elements.getTypeElement("java.lang.Object").getEnclosedElements());
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        Set<String> signatures = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) continue;
+            if (((TypeElement) method.getEnclosingElement()).getKind() != ElementKind.INTERFACE) continue;
+            // equals, hashCode or toString redeclared by the interface, the adapter keeps its own
+            if (objectMethods.stream().anyMatch(m -> elements.overrides(method, m, type))) continue;
+            if (method.getSimpleName().contentEquals("delegate") && method.getParameters().isEmpty()) {
+                error(type, "Cannot generate the adapter of " + type.getQualifiedName()
+                        + ": its delegate() method clashes with the accessor of the delegate");
+                return;
+            }
+            ExecutableType executable = (ExecutableType) this.processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            String signature = method.getSimpleName() + executable.getParameterTypes().stream()
+                    .map(t -> this.processingEnv.getTypeUtils().erasure(t).toString())
+                    .collect(Collectors.joining(",", "(", ")"));
+            if (signatures.add(signature)) method(source, method, executable);
+        }
+        source.append("\n}\n");
+
+        JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void method(StringBuilder source, ExecutableElement method, ExecutableType executable) {
+        TypeMirror returnType = executable.getReturnType();
+        boolean procedure = returnType.getKind() == TypeKind.VOID;
+        String valueType = procedure ? "java.lang.Void" : boxed(returnType);
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends TypeMirror> parameterTypes = executable.getParameterTypes();
+
+        source.append("\n    public ");
+        String typeParameters = typeParameters(method.getTypeParameters());
+        if (!typeParameters.isEmpty()) source.append(typeParameters).append(" ");
+        source.append(TRY).append("<").append(valueType).append("> ").append(method.getSimpleName()).append("(");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) source.append(", ");
+            String parameterType = parameterTypes.get(i).toString();
+            if (method.isVarArgs() && i == parameters.size() - 1 && parameterTypes.get(i) instanceof ArrayType) {
+                parameterType = ((ArrayType) parameterTypes.get(i)).getComponentType() + "...";
+            }
+            source.append("final ").append(parameterType).append(" ").append(parameters.get(i).getSimpleName());
+        }
+        source.append(") {\n");
+        String arguments = parameters.stream().map(p -> p.getSimpleName().toString()).collect(Collectors.joining(", "));
+        String call = "this.delegate." + method.getSimpleName() + "(" + arguments + ")";
+        if (procedure) {
+            source.append("        return ").append(TRY).append(".newTry((").append(TRY_PROCEDURE).append(") () -> ").append(call).append(");\n");
+        } else {
+            source.append("        return ").append(TRY).append(".<").append(valueType).append(">newTry(() -> ").append(call).append(");\n");
+        }
+        source.append("    }\n");
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return this.processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private static String typeParameters(List<? extends TypeParameterElement> parameters) {
+        if (parameters.isEmpty()) return "";
+        return parameters.stream().map(p -> {
+            String bounds = p.getBounds().stream()
+                    .map(TypeMirror::toString)
+                    .filter(b -> !b.equals("java.lang.Object"))
+                    .collect(Collectors.joining(" & "));
+            return bounds.isEmpty() ? p.getSimpleName().toString() : p.getSimpleName() + " extends " + bounds;
+        }).collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    private static String adapterName(TypeElement type) {
+        String name = type.getAnnotation(TryAdapter.class).value();
+        if (!name.isEmpty()) return name;
+        StringBuilder builder = new StringBuilder(type.getSimpleName());
+        for (Element enclosing = type.getEnclosingElement(); !(enclosing instanceof PackageElement); enclosing = enclosing.getEnclosingElement()) {
+            builder.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return builder.append("Try").toString();
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.dwilliam.utils.processor;
+
+import com.dwilliam.utils.Try;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryAdapterProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    static JavaFileObject source(String name, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    /**
+     * Compiles the given sources with the processor, and returns the diagnostics.
+     */
+    List<Diagnostic<? extends JavaFileObject>> compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = List.of("-d", directory.toString(), "-s", directory.toString(),
+                "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, List.of(sources));
+        task.setProcessors(List.of(new TryAdapterProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void adapter() throws Exception {
+        assertEquals(List.of(), compile(source("test.Service", """
+                package test;
+
+                @com.dwilliam.utils.TryAdapter
+                public interface Service<K> extends Parent {
+                    int length(K key) throws java.io.IOException;
+                    void check(String... values) throws Exception;
+                    <T extends Comparable<T>> T max(T a, T b);
+                }
+                """), source("test.Parent", """
+                package test;
+
+                public interface Parent {
+                    default String name() {
+                        return "parent";
+                    }
+                }
+                """)));
+        assertTrue(Files.exists(directory.resolve("test/ServiceTry.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { directory.toUri().toURL() }, getClass().getClassLoader())) {
+            Class<?> service = loader.loadClass("test.Service");
+            Object delegate = Proxy.newProxyInstance(loader, new Class<?>[] { service }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "length":
+                        if (args[0] == null) throw new IOException("null");
+                        return args[0].toString().length();
+                    case "check":
+                        if (((String[]) args[0]).length == 0) throw new IllegalStateException();
+                        return null;
+                    case "max":
+                        return ((Comparable) args[0]).compareTo(args[1]) >= 0 ? args[0] : args[1];
+                    default:
+                        return "delegate";
+                }
+            });
+            Class<?> adapterClass = loader.loadClass("test.ServiceTry");
+            assertTrue(java.lang.reflect.Modifier.isFinal(adapterClass.getModifiers()));
+            Object adapter = adapterClass.getConstructor(service).newInstance(delegate);
+            Method length = adapterClass.getMethod("length", Object.class);
+            Method check = adapterClass.getMethod("check", String[].class);
+            assertTrue(check.isVarArgs());
+
+            assertEquals(Try.value(3), length.invoke(adapter, "abc"));
+            assertInstanceOf(IOException.class, ((Try<?>) length.invoke(adapter, (Object) null)).getThrowable());
+            assertEquals(Try.value(null), check.invoke(adapter, (Object) new String[] { "a" }));
+            assertInstanceOf(IllegalStateException.class, ((Try<?>) check.invoke(adapter, (Object) new String[0])).getThrowable());
+            assertEquals(Try.value(5), adapterClass.getMethod("max", Comparable.class, Comparable.class).invoke(adapter, 2, 5));
+            assertEquals(Try.value("delegate"), adapterClass.getMethod("name").invoke(adapter));
+            assertSame(delegate, adapterClass.getMethod("delegate").invoke(adapter));
+        }
+    }
+
+    @Test
+    void names() {
+        assertEquals(List.of(), compile(source("test.Outer", """
+                package test;
+
+                public class Outer {
+                    @com.dwilliam.utils.TryAdapter
+                    public interface Inner {
+                        void run();
+                    }
+
+                    @com.dwilliam.utils.TryAdapter("Renamed")
+                    public interface Named {
+                        void run();
+                    }
+                }
+                """)));
+        assertTrue(Files.exists(directory.resolve("test/Outer_InnerTry.java")));
+        assertTrue(Files.exists(directory.resolve("test/Renamed.java")));
+    }
+
+    @Test
+    void objectMethods() throws IOException {
+        assertEquals(List.of(), compile(source("test.Value", """
+                package test;
+
+                @com.dwilliam.utils.TryAdapter
+                public interface Value {
+                    int get();
+
+                    @Override
+                    boolean equals(Object other);
+
+                    @Override
+                    int hashCode();
+
+                    @Override
+                    String toString();
+                }
+                """)));
+        String adapter = Files.readString(directory.resolve("test/ValueTry.java"));
+        assertTrue(adapter.contains(" get()"));
+        assertFalse(adapter.contains(" equals("));
+        assertFalse(adapter.contains(" hashCode("));
+        assertFalse(adapter.contains(" toString("));
+    }
+
+    @Test
+    void delegateClash() {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("test.Wrapper", """
+                package test;
+
+                @com.dwilliam.utils.TryAdapter
+                public interface Wrapper {
+                    Object delegate();
+                }
+                """));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("delegate()"));
+        assertFalse(Files.exists(directory.resolve("test/WrapperTry.java")));
+    }
+
+    @Test
+    void notAnInterface() {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("test.Service", """
+                package test;
+
+                @com.dwilliam.utils.TryAdapter
+                public class Service {}
+                """));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("interface"));
+    }
+
+}
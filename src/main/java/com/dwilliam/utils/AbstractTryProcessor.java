@@ -0,0 +1,144 @@
+package com.dwilliam.utils;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a {@code TryFunction} to the items of an upstream publisher, with a bounded concurrency,
+ * and publishes the outcomes to the subscribers of this processor.
+ * <p>
+ * At most {@code concurrency} items are requested upstream and not yet published downstream.
+ * Publishing blocks while a subscriber buffer is full, so the upstream is only asked for more items
+ * once the slowest subscriber has requested them.
+ * <p>
+ * Nothing is requested upstream before this processor has a subscriber. The upstream subscription is cancelled
+ * when this processor is closed, or when its last subscriber is gone, then this processor is closed.
+ */
+abstract class AbstractTryProcessor<T, R, O> extends SubmissionPublisher<O> implements Flow.Processor<T, O> {
+
+    private final TryFunction<? super T, ? extends R> mapper;
+    private final Executor executor;
+    private final int concurrency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+
+    AbstractTryProcessor(TryFunction<? super T, ? extends R> mapper, Executor executor, int concurrency, int bufferCapacity) {
+        super(ForkJoinPool.commonPool(), bufferCapacity);
+        if (concurrency <= 0) throw new IllegalArgumentException("Non positive concurrency: " + concurrency);
+        this.mapper = Objects.requireNonNull(mapper);
+        this.executor = Objects.requireNonNull(executor);
+        this.concurrency = concurrency;
+    }
+
+    abstract void emit(Try<R> outcome);
+
+    abstract void finish(Throwable error);
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (this.subscription != null || isClosed()) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        start();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        super.subscribe(subscriber);
+        start();
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        super.close();
+    }
+
+    @Override
+    public void closeExceptionally(Throwable error) {
+        cancel();
+        super.closeExceptionally(error);
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item);
+        this.inFlight.incrementAndGet();
+        try {
+            this.executor.execute(() -> publish(Try.newTry(() -> this.mapper.apply(item))));
+        } catch (RejectedExecutionException e) {
+            publish(new Failure<>(e));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.upstreamError = Objects.requireNonNull(throwable);
+        this.upstreamDone = true;
+        if (this.inFlight.get() == 0) finish();
+    }
+
+    @Override
+    public void onComplete() {
+        this.upstreamDone = true;
+        if (this.inFlight.get() == 0) finish();
+    }
+
+    private void publish(Try<R> outcome) {
+        boolean emitted = false;
+        try {
+            // the outcomes of the items still in flight once the upstream is cancelled are dropped
+            if (!this.cancelled.get()) {
+                emit(outcome);
+                emitted = true;
+            }
+        } finally {
+            if (!this.upstreamDone && !this.cancelled.get()) {
+                if (!emitted) {
+                    // emitting threw, as it does once this processor is closed
+                    cancel();
+                } else if (getNumberOfSubscribers() == 0) {
+                    cancel();
+                    finish();
+                } else {
+                    this.subscription.request(1);
+                }
+            }
+            if (this.inFlight.decrementAndGet() == 0 && this.upstreamDone) finish();
+        }
+    }
+
+    /**
+     * Requests the first items upstream, once there is both an upstream subscription and a subscriber.
+     */
+    private void start() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null && getNumberOfSubscribers() > 0 && this.started.compareAndSet(false, true)) {
+            subscription.request(this.concurrency);
+        }
+    }
+
+    private void cancel() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null && !this.upstreamDone && this.cancelled.compareAndSet(false, true)) subscription.cancel();
+    }
+
+    private void finish() {
+        if (this.finished.compareAndSet(false, true)) finish(this.upstreamError);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.dwilliam.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@code Throwable} holding every {@code Throwable} caught by an accumulating combinator,
+ * such as {@link Try#all(List)} or {@link Try#validate(Object, List)}.
+ * The first caught {@code Throwable} is used as cause.
+ * No stack trace is filled in, the accumulated throwables already carry their own.
+ */
+public final class AccumulatedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Throwable[] throwables;
+
+    AccumulatedException(Throwable[] throwables) {
+        super(throwables.length + (throwables.length > 1 ? " failures" : " failure"),
+                throwables.length > 0 ? throwables[0] : null, true, false);
+        this.throwables = throwables;
+    }
+
+    /**
+     * Returns the number of accumulated throwables.
+     *
+     * @return the number of accumulated throwables
+     */
+    public int size() {
+        return this.throwables.length;
+    }
+
+    /**
+     * Returns the accumulated throwable at the specified position.
+     *
+     * @param index index of the throwable to return
+     * @return the accumulated throwable at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Throwable get(int index) {
+        return this.throwables[index];
+    }
+
+    /**
+     * Returns an unmodifiable view of the accumulated throwables, in the order of their combinators.
+     *
+     * @return an unmodifiable view of the accumulated throwables
+     */
+    public List<Throwable> throwables() {
+        return Collections.unmodifiableList(Arrays.asList(this.throwables));
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.dwilliam.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batches individual key loads into calls of a batch function.
+ * <p>
+ * Keys requested within a time window, or until the maximum batch size is reached, are loaded together.
+ * The first caller of a batch waits for the window, then calls the batch function for every caller,
+ * so no background thread is needed. A batch filled before the end of its window is loaded immediately
+ * by the caller filling it. Keys requested several times in the same batch are loaded once.
+ * <p>
+ * Each caller gets its own {@code Try}: if the batch function fails, every key of the batch fails,
+ * and a key missing from the returned map fails with a {@code NoSuchElementException}.
+ * Callers block while waiting, which is cheap from virtual threads.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BatchLoader<K, V> {
+
+    private final TryFunction<? super List<K>, ? extends Map<K, ? extends V>> batchFunction;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Object lock = new Object();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong keys = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private Batch<K, V> current;
+
+    /**
+     * Constructs a batch loader.
+     *
+     * @param batchFunction the function loading the values of a list of distinct keys
+     * @param maxBatchSize the maximum number of keys per batch
+     * @param window the maximum time a key waits for other keys
+     * @throws NullPointerException if the batch function or the window is {@code null}
+     * @throws IllegalArgumentException if the maximum batch size is not positive or the window is negative
+     */
+    public BatchLoader(TryFunction<? super List<K>, ? extends Map<K, ? extends V>> batchFunction,
+                       int maxBatchSize, Duration window) {
+        if (maxBatchSize <= 0) throw new IllegalArgumentException("Non positive batch size: " + maxBatchSize);
+        if (window.isNegative()) throw new IllegalArgumentException("Negative window: " + window);
+        this.batchFunction = Objects.requireNonNull(batchFunction);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Loads the value of a key, within a batch.
+     *
+     * @param key the key
+     * @return a {@code Success} containing the value of the key,
+     *         or a {@code Failure} if the batch failed, if the key was not found
+     *         or if the current thread was interrupted while waiting
+     */
+    public Try<V> load(K key) {
+        Batch<K, V> batch;
+        TryCell<V> cell;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (this.lock) {
+            if (this.current == null) {
+                this.current = new Batch<>(Thread.currentThread());
+                leader = true;
+            }
+            batch = this.current;
+            cell = batch.cells.computeIfAbsent(key, k -> new TryCell<>());
+            if (batch.cells.size() >= this.maxBatchSize) {
+                this.current = null;
+                batch.taken = true;
+                full = true;
+            }
+        }
+        if (full) {
+            if (!leader) LockSupport.unpark(batch.leader);
+            dispatch(batch);
+        } else if (leader) {
+            long deadline = System.nanoTime() + this.windowNanos;
+            long remaining;
+            boolean interrupted = false;
+            while ((remaining = deadline - System.nanoTime()) > 0L && !batch.taken) {
+                LockSupport.parkNanos(this, remaining);
+                // parking returns at once while interrupted, so an interrupted leader dispatches early
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                    break;
+                }
+            }
+            boolean take;
+            synchronized (this.lock) {
+                take = this.current == batch;
+                if (take) {
+                    this.current = null;
+                    batch.taken = true;
+                }
+            }
+            if (take) dispatch(batch);
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+        try {
+            return cell.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Failure<>(e);
+        }
+    }
+
+    /**
+     * Returns the statistics of the batches loaded so far.
+     *
+     * @return a snapshot of the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(this.batches.get(), this.keys.get(), this.largestBatch.get());
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        int size = batch.cells.size();
+        this.batches.incrementAndGet();
+        this.keys.addAndGet(size);
+        this.largestBatch.accumulateAndGet(size, Math::max);
+        Try<? extends Map<K, ? extends V>> result = Try.newTry(() -> this.batchFunction.apply(new ArrayList<>(batch.cells.keySet())));
+        boolean completed = false;
+        try {
+            for (Map.Entry<K, TryCell<V>> entry : batch.cells.entrySet()) {
+                if (result.isFailure()) entry.getValue().fail(result.getThrowable());
+                else entry.getValue().complete(value(result.get(), entry.getKey()));
+            }
+            completed = true;
+        } finally {
+            // the other callers of the batch wait for their cell, whatever happened to this thread
+            if (!completed) {
+                for (TryCell<V> cell : batch.cells.values()) {
+                    cell.fail(new IllegalStateException("Batch not completed"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the value of a key in the map returned by the batch function, a map throwing fails the key only.
+     */
+    private Try<V> value(Map<K, ? extends V> values, K key) {
+        return Try.newTry(() -> {
+            if (values == null || !values.containsKey(key)) throw new NoSuchElementException("No value for key " + key);
+            return values.get(key);
+        });
+    }
+
+    /**
+     * The statistics of a {@code BatchLoader}.
+     *
+     * @param batches the number of loaded batches
+     * @param keys the number of loaded keys, over all batches
+     * @param largestBatch the number of keys of the largest batch
+     */
+    public record Statistics(long batches, long keys, long largestBatch) {
+
+        /**
+         * Returns the average number of keys per batch.
+         *
+         * @return the average batch size, 0 if no batch was loaded
+         */
+        public double averageBatchSize() {
+            return this.batches == 0 ? 0 : (double) this.keys / this.batches;
+        }
+
+    }
+
+    private static final class Batch<K, V> {
+
+        private final Thread leader;
+        // guarded by the loader lock until the batch is taken
+        private final Map<K, TryCell<V>> cells = new LinkedHashMap<>();
+        private volatile boolean taken;
+
+        private Batch(Thread leader) {
+            this.leader = leader;
+        }
+
+    }
+
+}
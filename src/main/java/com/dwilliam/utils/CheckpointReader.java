@@ -0,0 +1,220 @@
+package com.dwilliam.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a checkpoint file written by a {@link CheckpointWriter}.
+ * <p>
+ * The outcomes are indexed when the reader is opened, so a restarted job can skip the
+ * {@linkplain #isCompleted(int) completed} records and retry the {@linkplain #failed() failed} ones.
+ * When a record was written several times, its last outcome wins.
+ * A truncated or corrupted tail, left by a crash, is ignored.
+ *
+ * @param <T> the type of the recorded values
+ */
+public final class CheckpointReader<T> {
+
+    static final int MAGIC = 0x54525943;
+    static final int VERSION = 1;
+    static final int HEADER = 8;
+    static final byte SUCCESS = 1;
+    static final byte FAILURE = 2;
+    // kind, index, payload length, then crc after the payload
+    static final int RECORD_OVERHEAD = 1 + 4 + 4 + 4;
+
+    private static final int WINDOW = 1 << 26;
+
+    private final Path path;
+    private final TryFunction<byte[], ? extends T> decoder;
+    private final BitSet completed = new BitSet();
+    private final BitSet failed = new BitSet();
+    private final long length;
+
+    private CheckpointReader(Path path, TryFunction<byte[], ? extends T> decoder) throws IOException {
+        this.path = path;
+        this.decoder = decoder;
+        this.length = scan(path, Long.MAX_VALUE, (kind, index, payload) -> {
+            this.completed.set(index, kind == SUCCESS);
+            this.failed.set(index, kind == FAILURE);
+        });
+    }
+
+    /**
+     * Opens and indexes a checkpoint file. A missing file is read as an empty checkpoint.
+     *
+     * @param path the checkpoint file
+     * @param decoder the function decoding the values of the {@code Success} records
+     * @param <T> the type of the recorded values
+     * @return a new {@code CheckpointReader}
+     * @throws IOException if the file cannot be read or is not a checkpoint file
+     * @throws NullPointerException if the path or the decoder is {@code null}
+     */
+    public static <T> CheckpointReader<T> open(Path path, TryFunction<byte[], ? extends T> decoder) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(decoder);
+        return new CheckpointReader<>(path, decoder);
+    }
+
+    /**
+     * Returns {@code true} if the last recorded outcome of the specified record is a {@code Success}.
+     *
+     * @param index the record index
+     * @return {@code true} if the record is completed, {@code false} otherwise
+     */
+    public boolean isCompleted(int index) {
+        return this.completed.get(index);
+    }
+
+    /**
+     * Returns {@code true} if the last recorded outcome of the specified record is a {@code Failure}.
+     *
+     * @param index the record index
+     * @return {@code true} if the record failed, {@code false} otherwise
+     */
+    public boolean isFailed(int index) {
+        return this.failed.get(index);
+    }
+
+    /**
+     * Returns the indices of the records whose last recorded outcome is a {@code Success}.
+     *
+     * @return a new {@code BitSet}
+     */
+    public BitSet completed() {
+        return (BitSet) this.completed.clone();
+    }
+
+    /**
+     * Returns the indices of the records whose last recorded outcome is a {@code Failure}.
+     *
+     * @return a new {@code BitSet}
+     */
+    public BitSet failed() {
+        return (BitSet) this.failed.clone();
+    }
+
+    /**
+     * Returns the length of the valid part of the file, when it was opened.
+     *
+     * @return a length in bytes
+     */
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * Performs the given action on every recorded outcome, in writing order, up to the {@linkplain #length() length}
+     * of the file when it was opened.
+     * A {@code Failure} contains a {@link RecordedThrowable}, or {@code null} if its recorded {@code Throwable} was.
+     * A {@code Success} whose value cannot be decoded is given as a {@code Failure} of the decoder.
+     *
+     * @param action the action, taking an outcome and its record index
+     * @throws IOException if the file cannot be read
+     * @throws NullPointerException if the action is {@code null}
+     */
+    public void forEach(ObjIntConsumer<? super Try<T>> action) throws IOException {
+        Objects.requireNonNull(action);
+        scan(this.path, this.length, (kind, index, payload) -> {
+            if (kind == SUCCESS) {
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                action.accept(Try.newTry(() -> this.decoder.apply(bytes)), index);
+            } else if (!payload.hasRemaining()) {
+                action.accept(new Failure<>(null), index);
+            } else {
+                String className = getString(payload);
+                action.accept(new Failure<>(new RecordedThrowable(className, getString(payload))), index);
+            }
+        });
+    }
+
+    private static long scan(Path path, long limit, RecordVisitor visitor) throws IOException {
+        if (Files.notExists(path)) return 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return scan(channel, limit, visitor);
+        }
+    }
+
+    /**
+     * Visits the valid records of a checkpoint file ending before the limit, and returns the position following
+     * the last one. An empty file or a file with a truncated header has no valid record and yields 0.
+     */
+    static long scan(FileChannel channel, long limit, RecordVisitor visitor) throws IOException {
+        long size = Math.min(channel.size(), limit);
+        if (size < HEADER) return 0;
+        Window window = new Window(channel, size);
+        ByteBuffer header = window.map(0, HEADER);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) throw new IOException("Not a checkpoint file");
+        CRC32 crc = new CRC32();
+        long position = HEADER;
+        while (position + RECORD_OVERHEAD <= size) {
+            ByteBuffer buffer = window.map(position, RECORD_OVERHEAD);
+            int start = buffer.position();
+            byte kind = buffer.get();
+            int index = buffer.getInt();
+            int length = buffer.getInt();
+            if ((kind != SUCCESS && kind != FAILURE) || index < 0 || length < 0
+                    || length > Integer.MAX_VALUE - RECORD_OVERHEAD
+                    || position + RECORD_OVERHEAD + (long) length > size) break;
+            buffer = window.map(position, RECORD_OVERHEAD + length);
+            crc.reset();
+            crc.update(buffer.duplicate().limit(start + RECORD_OVERHEAD - 4 + length));
+            if (buffer.getInt(start + RECORD_OVERHEAD - 4 + length) != (int) crc.getValue()) break;
+            visitor.visit(kind, index, buffer.duplicate().position(start + 9).limit(start + 9 + length));
+            position += RECORD_OVERHEAD + length;
+        }
+        return position;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+
+        void visit(byte kind, int index, ByteBuffer payload);
+
+    }
+
+    /**
+     * A read-only mapping of the file, moved forward when a record does not fit in it.
+     */
+    private static final class Window {
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        private Window(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        private ByteBuffer map(long position, int length) throws IOException {
+            if (this.buffer == null || position < this.start || position + length > this.start + this.buffer.capacity()) {
+                this.start = position;
+                this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(this.size - position, Math.max(WINDOW, length)));
+            }
+            return this.buffer.clear().position((int) (position - this.start));
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.dwilliam.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import static com.dwilliam.utils.CheckpointReader.*;
+
+/**
+ * Appends per-record {@code Try} outcomes to a memory-mapped checkpoint file,
+ * so a crashed batch job can be restarted with a {@link CheckpointReader}.
+ * <p>
+ * Each record holds its index, its kind and either the encoded value of a {@code Success}
+ * or the class name and message of the {@code Throwable} of a {@code Failure}, if not {@code null},
+ * followed by a CRC-32.
+ * Records are only appended: after a process crash, the records written before are still readable
+ * and a torn last record is detected by its checksum, then dropped when the file is opened again.
+ * Call {@link #force()} to also survive an operating system crash.
+ *
+ * @param <T> the type of the recorded values
+ */
+public final class CheckpointWriter<T> implements Closeable {
+
+    private static final int REGION = 1 << 20;
+
+    private final FileChannel channel;
+    private final TryFunction<? super T, byte[]> encoder;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private boolean closed;
+
+    private CheckpointWriter(FileChannel channel, TryFunction<? super T, byte[]> encoder) throws IOException {
+        this.channel = channel;
+        this.encoder = encoder;
+        long end = scan(channel, Long.MAX_VALUE, (kind, index, payload) -> {});
+        // drops the torn tail, so it cannot be read back once new records are appended
+        channel.truncate(end);
+        if (end == 0) {
+            channel.write(ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            end = HEADER;
+        }
+        this.position = end;
+    }
+
+    /**
+     * Opens a checkpoint file for appending, creating it if it does not exist.
+     *
+     * @param path the checkpoint file
+     * @param encoder the function encoding the values of the {@code Success} outcomes
+     * @param <T> the type of the recorded values
+     * @return a new {@code CheckpointWriter}
+     * @throws IOException if the file cannot be opened or is not a checkpoint file
+     * @throws NullPointerException if the path or the encoder is {@code null}
+     */
+    public static <T> CheckpointWriter<T> open(Path path, TryFunction<? super T, byte[]> encoder) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(encoder);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new CheckpointWriter<>(channel, encoder);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the outcome of the specified record.
+     *
+     * @param index the record index
+     * @param outcome the outcome of the record
+     * @throws IOException if the value cannot be encoded or the file cannot be written
+     * @throws IllegalArgumentException if the index is negative
+     * @throws IllegalStateException if this writer is closed
+     * @throws NullPointerException if the outcome is {@code null}
+     */
+    public synchronized void write(int index, Try<? extends T> outcome) throws IOException {
+        Objects.requireNonNull(outcome);
+        if (index < 0) throw new IllegalArgumentException("Negative index: " + index);
+        if (this.closed) throw new IllegalStateException("Closed");
+        byte kind;
+        byte[] payload;
+        if (outcome.isSuccess()) {
+            kind = SUCCESS;
+            try {
+                payload = this.encoder.apply(outcome.get());
+            } catch (Throwable throwable) {
+                throw new IOException("Cannot encode the value of record " + index, throwable);
+            }
+        } else {
+            kind = FAILURE;
+            payload = describe(outcome.getThrowable());
+        }
+        int length = RECORD_OVERHEAD + payload.length;
+        ByteBuffer buffer = reserve(length);
+        int start = buffer.position();
+        buffer.put(kind).putInt(index).putInt(payload.length).put(payload);
+        this.crc.reset();
+        this.crc.update(buffer.duplicate().flip().position(start));
+        buffer.putInt((int) this.crc.getValue());
+        this.position += length;
+    }
+
+    /**
+     * Forces the written records to the storage device.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void force() throws IOException {
+        if (this.region != null) this.region.force();
+        this.channel.force(false);
+    }
+
+    /**
+     * Forces the written records to the storage device, trims the file to its written length and closes it.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) return;
+        this.closed = true;
+        try {
+            force();
+            this.region = null;
+            this.channel.truncate(this.position);
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private ByteBuffer reserve(int length) throws IOException {
+        if (this.region == null || this.position + length > this.regionStart + this.region.capacity()) {
+            this.regionStart = this.position;
+            this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, this.position, Math.max(REGION, length));
+        }
+        return this.region.position((int) (this.position - this.regionStart));
+    }
+
+    private static byte[] describe(Throwable throwable) {
+        // a Failure containing null is recorded with an empty payload
+        if (throwable == null) return new byte[0];
+        String className = throwable instanceof RecordedThrowable recorded ? recorded.className() : throwable.getClass().getName();
+        byte[] name = className.getBytes(StandardCharsets.UTF_8);
+        String message = throwable.getMessage();
+        byte[] text = message != null ? message.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + name.length + (text != null ? text.length : 0));
+        buffer.putInt(name.length).put(name);
+        if (text != null) buffer.putInt(text.length).put(text);
+        else buffer.putInt(-1);
+        return buffer.array();
+    }
+
+}
@@ -7,6 +7,9 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public record Failure<T>(Throwable throwable) implements Try<T> {
 
@@ -30,6 +33,11 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         throw new NoSuchElementException(this.throwable);
     }
 
+    @Override
+    public T getOrRethrow() {
+        throw Sneaky.rethrow(this.throwable);
+    }
+
     @Override
     public Throwable getThrowable() {
         return this.throwable;
@@ -68,7 +76,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Failure<>(mapper.apply(this.throwable));
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -78,7 +86,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Failure<>(mapper.apply(this.throwable));
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -154,7 +162,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Failure<>(supplier.get());
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -164,7 +172,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Failure<>(supplier.get());
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -189,7 +197,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Success<>(mapper.apply(this.throwable));
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -199,7 +207,7 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         try {
             return new Success<>(mapper.apply(this.throwable));
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -208,6 +216,30 @@ public record Failure<T>(Throwable throwable) implements Try<T> {
         return new Success<>(this.throwable);
     }
 
+    @Override
+    public <U> U fold(Function<? super T, ? extends U> onSuccess, Function<? super Throwable, ? extends U> onFailure) {
+        Objects.requireNonNull(onSuccess);
+        return Objects.requireNonNull(onFailure).apply(this.throwable);
+    }
+
+    @Override
+    public int foldToInt(ToIntFunction<? super T> onSuccess, ToIntFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onSuccess);
+        return Objects.requireNonNull(onFailure).applyAsInt(this.throwable);
+    }
+
+    @Override
+    public long foldToLong(ToLongFunction<? super T> onSuccess, ToLongFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onSuccess);
+        return Objects.requireNonNull(onFailure).applyAsLong(this.throwable);
+    }
+
+    @Override
+    public double foldToDouble(ToDoubleFunction<? super T> onSuccess, ToDoubleFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onSuccess);
+        return Objects.requireNonNull(onFailure).applyAsDouble(this.throwable);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
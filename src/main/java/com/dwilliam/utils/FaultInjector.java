@@ -0,0 +1,271 @@
+package com.dwilliam.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Injects faults and latency into {@code TrySupplier} and {@code TryFunction} calls, to test how code behaves
+ * when its dependencies fail or slow down.
+ * <p>
+ * Before each call of a wrapped supplier or function, the injector may sleep for a latency drawn from its
+ * distribution, then may throw one of its faults instead of calling the delegate, so {@code Try.newTry}
+ * makes a {@code Failure} of it. The decisions of the n-th call only depend on the seed and on n:
+ * a sequential run is replayed identically by an injector with the same seed, or after {@link #reset()}.
+ * <p>
+ * An injector can be enabled and disabled at runtime. A disabled injector costs a volatile read per call,
+ * so wrappers can stay in production code.
+ *
+ * <pre>{@code
+ * FaultInjector injector = FaultInjector.builder()
+ *         .seed(42)
+ *         .fault(0.01, () -> new SocketTimeoutException("injected"))
+ *         .latency(0.1, Duration.ofMillis(10), Duration.ofMillis(200))
+ *         .enabled(false)
+ *         .build();
+ * TrySupplier<User> find = injector.wrap(() -> client.find(id));
+ * }</pre>
+ */
+public final class FaultInjector {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final double[] faultThresholds;
+    private final List<Supplier<? extends Throwable>> faults;
+    private final double latencyRate;
+    private final ToLongFunction<? super RandomGenerator> latency;
+    private final AtomicLong calls = new AtomicLong();
+    private volatile boolean enabled;
+
+    private FaultInjector(Builder builder) {
+        this.seed = builder.seed;
+        this.faults = List.copyOf(builder.faults);
+        this.faultThresholds = new double[this.faults.size()];
+        double threshold = 0;
+        for (int i = 0; i < this.faultThresholds.length; i++) {
+            threshold += builder.faultRates.get(i);
+            this.faultThresholds[i] = threshold;
+        }
+        this.latencyRate = builder.latencyRate;
+        this.latency = builder.latency;
+        this.enabled = builder.enabled;
+    }
+
+    /**
+     * Wraps a supplier, injecting faults and latency before its calls while this injector is enabled.
+     *
+     * @param supplier the supplier to wrap
+     * @param <T> the type of the supplied values
+     * @return a supplier calling the given one
+     * @throws NullPointerException if the supplier is {@code null}
+     */
+    public <T> TrySupplier<T> wrap(TrySupplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+        return () -> {
+            if (this.enabled) inject();
+            return supplier.get();
+        };
+    }
+
+    /**
+     * Wraps a function, injecting faults and latency before its calls while this injector is enabled.
+     *
+     * @param function the function to wrap
+     * @param <T> the type of the function arguments
+     * @param <R> the type of the function results
+     * @return a function calling the given one
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public <T, R> TryFunction<T, R> wrap(TryFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return t -> {
+            if (this.enabled) inject();
+            return function.apply(t);
+        };
+    }
+
+    /**
+     * Enables the injection.
+     */
+    public void enable() {
+        this.enabled = true;
+    }
+
+    /**
+     * Disables the injection, wrapped suppliers and functions only call their delegate.
+     */
+    public void disable() {
+        this.enabled = false;
+    }
+
+    /**
+     * Returns {@code true} if the injection is enabled.
+     *
+     * @return {@code true} if the injection is enabled, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Returns the number of calls made while this injector was enabled, since its creation or its last reset.
+     *
+     * @return a number of calls
+     */
+    public long calls() {
+        return this.calls.get();
+    }
+
+    /**
+     * Resets the number of calls, so the next calls replay the decisions of the first ones.
+     */
+    public void reset() {
+        this.calls.set(0);
+    }
+
+    private void inject() throws Throwable {
+        long n = this.calls.getAndIncrement();
+        SplittableRandom random = new SplittableRandom(this.seed + n * GOLDEN_GAMMA);
+        if (this.latencyRate > 0 && random.nextDouble() < this.latencyRate) {
+            long nanos = this.latency.applyAsLong(random);
+            if (nanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(nanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+        if (this.faultThresholds.length > 0) {
+            double draw = random.nextDouble();
+            for (int i = 0; i < this.faultThresholds.length; i++) {
+                if (draw < this.faultThresholds[i]) throw this.faults.get(i).get();
+            }
+        }
+    }
+
+    /**
+     * Returns a new builder of {@code FaultInjector}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private long seed;
+        private final List<Double> faultRates = new ArrayList<>();
+        private final List<Supplier<? extends Throwable>> faults = new ArrayList<>();
+        private double faultRate;
+        private double latencyRate;
+        private ToLongFunction<? super RandomGenerator> latency = random -> 0L;
+        private boolean enabled = true;
+
+        private Builder() {}
+
+        /**
+         * Sets the seed of the random decisions, {@code 0} by default.
+         *
+         * @param seed the seed
+         * @return this builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Adds a fault thrown instead of a call at the given rate.
+         * The rates of the faults add up: at most one fault is thrown per call.
+         *
+         * @param rate the probability to throw the fault, between {@code 0} and {@code 1}
+         * @param fault the factory of the thrown throwables
+         * @return this builder
+         * @throws NullPointerException if the factory is {@code null}
+         * @throws IllegalArgumentException if the rate is not between {@code 0} and {@code 1},
+         *         or if the sum of the fault rates exceeds {@code 1}
+         */
+        public Builder fault(double rate, Supplier<? extends Throwable> fault) {
+            Objects.requireNonNull(fault);
+            checkRate(rate);
+            if (this.faultRate + rate > 1) throw new IllegalArgumentException("Fault rates exceed 1: " + (this.faultRate + rate));
+            this.faultRate += rate;
+            this.faultRates.add(rate);
+            this.faults.add(fault);
+            return this;
+        }
+
+        /**
+         * Sets the latency added before a call at the given rate, uniformly distributed between two durations.
+         *
+         * @param rate the probability to add latency, between {@code 0} and {@code 1}
+         * @param min the minimum latency
+         * @param max the maximum latency
+         * @return this builder
+         * @throws NullPointerException if a duration is {@code null}
+         * @throws IllegalArgumentException if the rate is not between {@code 0} and {@code 1},
+         *         if the minimum is negative or if the maximum is less than the minimum
+         */
+        public Builder latency(double rate, Duration min, Duration max) {
+            long minNanos = min.toNanos();
+            long maxNanos = max.toNanos();
+            if (minNanos < 0) throw new IllegalArgumentException("Negative latency: " + min);
+            if (maxNanos < minNanos) throw new IllegalArgumentException("Maximum latency less than minimum: " + max);
+            return latency(rate, minNanos == maxNanos ? random -> minNanos : random -> random.nextLong(minNanos, maxNanos + 1));
+        }
+
+        /**
+         * Sets the latency added before a call at the given rate, drawn from a distribution.
+         *
+         * @param rate the probability to add latency, between {@code 0} and {@code 1}
+         * @param nanos the distribution of the latency in nanoseconds, drawing from the given random generator
+         * @return this builder
+         * @throws NullPointerException if the distribution is {@code null}
+         * @throws IllegalArgumentException if the rate is not between {@code 0} and {@code 1}
+         */
+        public Builder latency(double rate, ToLongFunction<? super RandomGenerator> nanos) {
+            Objects.requireNonNull(nanos);
+            checkRate(rate);
+            this.latencyRate = rate;
+            this.latency = nanos;
+            return this;
+        }
+
+        /**
+         * Sets whether the built injector is initially enabled, {@code true} by default.
+         *
+         * @param enabled {@code true} to enable the injection
+         * @return this builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Builds the {@code FaultInjector}.
+         *
+         * @return a new {@code FaultInjector}
+         */
+        public FaultInjector build() {
+            return new FaultInjector(this);
+        }
+
+        private static void checkRate(double rate) {
+            if (!(rate >= 0 && rate <= 1)) throw new IllegalArgumentException("Invalid rate: " + rate);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.dwilliam.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link RateLimiter} per key, such as per tenant or per host.
+ * <p>
+ * Limiters are created on first use, and removed once their bucket has been full for the idle timeout,
+ * since a full bucket behaves as a new one. Idle limiters are swept by the callers, at most once per idle timeout,
+ * so no background thread is needed. A call racing with the removal of its limiter may get a permit from the
+ * removed limiter: the rate of a key can then exceed its burst by one permit.
+ *
+ * @param <K> the type of the keys
+ */
+public final class KeyedRateLimiter<K> {
+
+    private static final VarHandle LAST_SWEEP;
+
+    static {
+        try {
+            LAST_SWEEP = MethodHandles.lookup().findVarHandle(KeyedRateLimiter.class, "lastSweep", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int permits;
+    private final Duration period;
+    private final int burst;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private volatile long lastSweep;
+
+    /**
+     * Constructs a keyed rate limiter.
+     *
+     * @param permits the number of permits released per period, for each key
+     * @param period the period
+     * @param burst the maximum number of permits acquired at once, for each key
+     * @param idleTimeout the time after which the limiter of an idle key is removed
+     * @throws NullPointerException if the period or the idle timeout is {@code null}
+     * @throws IllegalArgumentException if the number of permits or the burst is not positive,
+     *         if the period is shorter than a nanosecond per permit, or if the idle timeout is negative
+     */
+    public KeyedRateLimiter(int permits, Duration period, int burst, Duration idleTimeout) {
+        this(permits, period, burst, idleTimeout, System::nanoTime);
+    }
+
+    KeyedRateLimiter(int permits, Duration period, int burst, Duration idleTimeout, LongSupplier clock) {
+        if (idleTimeout.isNegative()) throw new IllegalArgumentException("Negative idle timeout: " + idleTimeout);
+        // validates the arguments once
+        new RateLimiter(permits, period, burst, clock);
+        this.permits = permits;
+        this.period = period;
+        this.burst = burst;
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        this.lastSweep = clock.getAsLong();
+    }
+
+    /**
+     * Returns the limiter of the given key, creating it if needed.
+     *
+     * @param key the key
+     * @return the limiter of the key
+     * @throws NullPointerException if the key is {@code null}
+     */
+    public RateLimiter limiter(K key) {
+        long now = this.clock.getAsLong();
+        long last = this.lastSweep;
+        if (now - last >= this.idleNanos && LAST_SWEEP.compareAndSet(this, last, now)) {
+            this.limiters.values().removeIf(limiter -> limiter.idleNanos(now) >= this.idleNanos);
+        }
+        RateLimiter limiter = this.limiters.get(key);
+        if (limiter != null) return limiter;
+        return this.limiters.computeIfAbsent(key, k -> new RateLimiter(this.permits, this.period, this.burst, this.clock));
+    }
+
+    /**
+     * Wraps a function, limiting its calls per argument, and failing with a {@link RateLimitException}
+     * instead of calling it when no permit is available for its argument.
+     *
+     * @param function the function to wrap
+     * @param <R> the type of the function results
+     * @return a function calling the given one
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public <R> TryFunction<K, R> wrap(TryFunction<? super K, ? extends R> function) {
+        return wrap(function, Duration.ZERO);
+    }
+
+    /**
+     * Wraps a function, limiting its calls per argument, waiting for a permit before calling it,
+     * or failing with a {@link RateLimitException} if no permit is available for its argument within the given time.
+     *
+     * @param function the function to wrap
+     * @param maxWait the maximum time to wait for a permit
+     * @param <R> the type of the function results
+     * @return a function calling the given one
+     * @throws NullPointerException if the function or the maximum time is {@code null}
+     */
+    public <R> TryFunction<K, R> wrap(TryFunction<? super K, ? extends R> function, Duration maxWait) {
+        Objects.requireNonNull(function);
+        long maxWaitNanos = Math.max(0L, maxWait.toNanos());
+        return key -> {
+            limiter(key).permit(maxWaitNanos);
+            return function.apply(key);
+        };
+    }
+
+    /**
+     * Returns the number of keys having a limiter.
+     *
+     * @return a number of keys
+     */
+    public int size() {
+        return this.limiters.size();
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.dwilliam.utils;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Applies a {@code TryFunction} concurrently to the elements of an {@code Iterator} or a {@code Stream},
+ * and yields the outcomes lazily in the order of the elements.
+ * <p>
+ * Elements are pulled from the source only when outcomes are consumed, and at most {@code bufferSize}
+ * elements are pulled ahead of the consumer, counting the one whose outcome is awaited: their outcomes wait
+ * in a reorder buffer until the outcomes of the previous elements are consumed, so the memory used does not
+ * depend on the size of the source.
+ * At most {@code concurrency} calls of the function run at once on the executor.
+ * When the consumer stops, no more elements are pulled. Once the returned stream is closed, or the returned iterator
+ * is garbage collected, the pulled elements whose call has not started yet are discarded,
+ * and the calls already started run to completion.
+ * <p>
+ * Consuming an outcome waits for its call, which is cheap from a virtual thread.
+ * If the consuming thread is interrupted while waiting, the outcome is a {@code Failure}
+ * containing an {@code InterruptedException}.
+ */
+public final class OrderedMap {
+
+    private OrderedMap() {}
+
+    /**
+     * Returns an iterator of the outcomes of the function applied to the elements of an iterator.
+     *
+     * @param source the iterator of the elements
+     * @param mapper the function to apply to each element
+     * @param executor the executor applying the function
+     * @param concurrency the maximum number of calls running at once
+     * @param bufferSize the maximum number of elements pulled ahead of the consumer,
+     *        at least the concurrency
+     * @param <T> the type of the elements
+     * @param <R> the type of the values of the outcomes
+     * @return a lazy iterator of the outcomes, in the order of the elements
+     * @throws NullPointerException if the source, the function or the executor is {@code null}
+     * @throws IllegalArgumentException if the concurrency is not positive or the buffer size is less than the concurrency
+     */
+    public static <T, R> Iterator<Try<R>> iterator(Iterator<? extends T> source, TryFunction<? super T, ? extends R> mapper,
+                                                   Executor executor, int concurrency, int bufferSize) {
+        return new OrderedIterator<>(source, mapper, executor, concurrency, bufferSize);
+    }
+
+    /**
+     * Returns a sequential stream of the outcomes of the function applied to the elements of a stream.
+     * Closing the returned stream closes the source stream.
+     *
+     * @param source the stream of the elements
+     * @param mapper the function to apply to each element
+     * @param executor the executor applying the function
+     * @param concurrency the maximum number of calls running at once
+     * @param bufferSize the maximum number of elements pulled ahead of the consumer,
+     *        at least the concurrency
+     * @param <T> the type of the elements
+     * @param <R> the type of the values of the outcomes
+     * @return a lazy stream of the outcomes, in the order of the elements
+     * @throws NullPointerException if the source, the function or the executor is {@code null}
+     * @throws IllegalArgumentException if the concurrency is not positive or the buffer size is less than the concurrency
+     */
+    public static <T, R> Stream<Try<R>> stream(Stream<? extends T> source, TryFunction<? super T, ? extends R> mapper,
+                                               Executor executor, int concurrency, int bufferSize) {
+        OrderedIterator<T, R> iterator = new OrderedIterator<>(source.iterator(), mapper, executor, concurrency, bufferSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator.calls::close)
+                .onClose(source::close);
+    }
+
+    private static final class OrderedIterator<T, R> implements Iterator<Try<R>> {
+
+        // discards the pending calls of the iterators dropped by their consumer
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final Iterator<? extends T> source;
+        private final int bufferSize;
+        // the slots pulled and not consumed yet, in order, only used by the consumer
+        private final ArrayDeque<Slot<T, R>> window;
+        // the running tasks only reference the calls, so the iterator can be collected while they run
+        private final Calls<T, R> calls;
+
+        private OrderedIterator(Iterator<? extends T> source, TryFunction<? super T, ? extends R> mapper,
+                                Executor executor, int concurrency, int bufferSize) {
+            if (concurrency <= 0) throw new IllegalArgumentException("Non positive concurrency: " + concurrency);
+            if (bufferSize < concurrency) throw new IllegalArgumentException("Buffer size less than concurrency: " + bufferSize);
+            this.source = Objects.requireNonNull(source);
+            this.bufferSize = bufferSize;
+            this.window = new ArrayDeque<>(bufferSize);
+            this.calls = new Calls<>(Objects.requireNonNull(mapper), Objects.requireNonNull(executor), concurrency, bufferSize);
+            CLEANER.register(this, this.calls::close);
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill(this.bufferSize);
+            return !this.window.isEmpty();
+        }
+
+        @Override
+        public Try<R> next() {
+            if (this.window.isEmpty()) fill(this.bufferSize);
+            Slot<T, R> slot = this.window.poll();
+            if (slot == null) throw new NoSuchElementException();
+            // pull the replacement of the slot before waiting for it, the slot counts until its outcome is returned
+            fill(this.bufferSize - 1);
+            try {
+                return slot.cell.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Failure<>(e);
+            }
+        }
+
+        private void fill(int size) {
+            while (this.window.size() < size && this.source.hasNext()) {
+                Slot<T, R> slot = new Slot<>(this.source.next());
+                this.window.add(slot);
+                this.calls.submit(slot);
+            }
+        }
+
+    }
+
+    /**
+     * The calls of the function for an {@code OrderedIterator}, at most {@code concurrency} at once.
+     */
+    private static final class Calls<T, R> {
+
+        private final TryFunction<? super T, ? extends R> mapper;
+        private final Executor executor;
+        private final int concurrency;
+        // the slots waiting for a running call to end, guarded by itself
+        private final ArrayDeque<Slot<T, R>> pending;
+        private int running;
+        private boolean closed;
+
+        private Calls(TryFunction<? super T, ? extends R> mapper, Executor executor, int concurrency, int bufferSize) {
+            this.mapper = mapper;
+            this.executor = executor;
+            this.concurrency = concurrency;
+            this.pending = new ArrayDeque<>(bufferSize);
+        }
+
+        private void submit(Slot<T, R> slot) {
+            boolean start;
+            synchronized (this.pending) {
+                if (this.closed) {
+                    slot.discard();
+                    return;
+                }
+                start = this.running < this.concurrency;
+                if (start) this.running++;
+                else this.pending.add(slot);
+            }
+            if (start) start(slot);
+        }
+
+        /**
+         * Discards the pending slots, their outcome is a {@code Failure} containing a {@code CancellationException}.
+         */
+        private void close() {
+            synchronized (this.pending) {
+                this.closed = true;
+                for (Slot<T, R> slot; (slot = this.pending.poll()) != null; ) {
+                    slot.discard();
+                }
+            }
+        }
+
+        private void start(Slot<T, R> slot) {
+            try {
+                this.executor.execute(() -> run(slot));
+            } catch (RejectedExecutionException e) {
+                slot.cell.fail(e);
+                Slot<T, R> next = nextPending();
+                if (next != null) start(next);
+            }
+        }
+
+        /**
+         * Runs the given slot, then the pending slots, until there is none.
+         */
+        private void run(Slot<T, R> first) {
+            for (Slot<T, R> slot = first; slot != null; slot = nextPending()) {
+                T element = slot.element;
+                slot.element = null;
+                slot.cell.complete(Try.newTry(() -> this.mapper.apply(element)));
+            }
+        }
+
+        private Slot<T, R> nextPending() {
+            synchronized (this.pending) {
+                Slot<T, R> slot = this.pending.poll();
+                if (slot == null) this.running--;
+                return slot;
+            }
+        }
+
+    }
+
+    private static final class Slot<T, R> {
+
+        private final TryCell<R> cell = new TryCell<>();
+        private T element;
+
+        private Slot(T element) {
+            this.element = element;
+        }
+
+        private void discard() {
+            this.element = null;
+            this.cell.fail(new CancellationException("Closed"));
+        }
+
+    }
+
+}
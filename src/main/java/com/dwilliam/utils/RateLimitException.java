@@ -0,0 +1,29 @@
+package com.dwilliam.utils;
+
+import java.time.Duration;
+
+/**
+ * Signals that a call was refused by a {@link RateLimiter} because no permit was available in time.
+ * No stack trace is filled in, so refusing a call stays cheap.
+ */
+public final class RateLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterNanos;
+
+    RateLimitException(long retryAfterNanos) {
+        super("Rate limit exceeded, retry after " + retryAfterNanos + "ns", null, true, false);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * Returns the time after which a permit was expected to be available when the call was refused.
+     *
+     * @return a positive duration
+     */
+    public Duration retryAfter() {
+        return Duration.ofNanos(this.retryAfterNanos);
+    }
+
+}
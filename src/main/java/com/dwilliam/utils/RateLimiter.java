@@ -0,0 +1,223 @@
+package com.dwilliam.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket limiting the rate of calls, such as calls to a quota-limited API.
+ * <p>
+ * The bucket is implemented as a generic cell rate algorithm: its whole state is the theoretical arrival time
+ * of the next call, updated by a compare-and-set. There is no lock and no refill thread,
+ * acquiring a permit costs a clock read and a compare-and-set.
+ * A permit is released every {@code period / permits}, and up to {@code burst} permits can be acquired at once
+ * after an idle time.
+ * <p>
+ * Wrapped suppliers and functions either fail immediately with a {@link RateLimitException} when no permit is
+ * available, so {@code Try.newTry} makes a {@code Failure} of it, or wait for a permit up to a maximum time.
+ * Waiting threads are parked with {@code LockSupport}, so waiting virtual threads release their carrier.
+ *
+ * <pre>{@code
+ * RateLimiter limiter = new RateLimiter(100, Duration.ofSeconds(1));
+ * Try<Quote> quote = Try.newTry(limiter.wrap(() -> api.quote(symbol)));
+ * }</pre>
+ */
+public final class RateLimiter {
+
+    private static final VarHandle ARRIVAL;
+
+    static {
+        try {
+            ARRIVAL = MethodHandles.lookup().findVarHandle(RateLimiter.class, "arrival", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long interval;
+    private final long tolerance;
+    private final LongSupplier clock;
+    // the theoretical arrival time of the next call, in clock nanoseconds
+    private volatile long arrival;
+
+    /**
+     * Constructs a rate limiter with a burst of {@code permits}.
+     *
+     * @param permits the number of permits released per period
+     * @param period the period
+     * @throws NullPointerException if the period is {@code null}
+     * @throws IllegalArgumentException if the number of permits is not positive,
+     *         or if the period is shorter than a nanosecond per permit
+     */
+    public RateLimiter(int permits, Duration period) {
+        this(permits, period, permits);
+    }
+
+    /**
+     * Constructs a rate limiter.
+     *
+     * @param permits the number of permits released per period
+     * @param period the period
+     * @param burst the maximum number of permits acquired at once
+     * @throws NullPointerException if the period is {@code null}
+     * @throws IllegalArgumentException if the number of permits or the burst is not positive,
+     *         or if the period is shorter than a nanosecond per permit
+     */
+    public RateLimiter(int permits, Duration period, int burst) {
+        this(permits, period, burst, System::nanoTime);
+    }
+
+    RateLimiter(int permits, Duration period, int burst, LongSupplier clock) {
+        if (permits <= 0) throw new IllegalArgumentException("Non positive permits: " + permits);
+        if (burst <= 0) throw new IllegalArgumentException("Non positive burst: " + burst);
+        this.interval = period.toNanos() / permits;
+        if (this.interval <= 0) throw new IllegalArgumentException("Period too short: " + period);
+        this.tolerance = Math.multiplyExact(this.interval, (long) burst);
+        this.clock = clock;
+        this.arrival = clock.getAsLong();
+    }
+
+    /**
+     * Acquires a permit if one is available now.
+     *
+     * @return {@code true} if a permit was acquired, {@code false} otherwise
+     */
+    public boolean tryAcquire() {
+        return reserve(this.clock.getAsLong(), 0L) >= 0L;
+    }
+
+    /**
+     * Acquires a permit if one is available within the given time, waiting for it.
+     * If the permit would not be available in time, returns immediately without waiting.
+     *
+     * @param timeout the maximum time to wait
+     * @return {@code true} if a permit was acquired, {@code false} otherwise
+     * @throws InterruptedException if the current thread is interrupted while waiting,
+     *         the permit is consumed anyway
+     * @throws NullPointerException if the timeout is {@code null}
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        return acquire(Math.max(0L, timeout.toNanos())) >= 0L;
+    }
+
+    /**
+     * Acquires a permit, waiting until one is available.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting,
+     *         the permit is consumed anyway
+     */
+    public void acquire() throws InterruptedException {
+        acquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Wraps a supplier, failing with a {@link RateLimitException} instead of calling it when no permit is available.
+     *
+     * @param supplier the supplier to wrap
+     * @param <T> the type of the supplied values
+     * @return a supplier calling the given one
+     * @throws NullPointerException if the supplier is {@code null}
+     */
+    public <T> TrySupplier<T> wrap(TrySupplier<? extends T> supplier) {
+        return wrap(supplier, Duration.ZERO);
+    }
+
+    /**
+     * Wraps a supplier, waiting for a permit before calling it,
+     * or failing with a {@link RateLimitException} if no permit is available within the given time.
+     *
+     * @param supplier the supplier to wrap
+     * @param maxWait the maximum time to wait for a permit
+     * @param <T> the type of the supplied values
+     * @return a supplier calling the given one
+     * @throws NullPointerException if the supplier or the maximum time is {@code null}
+     */
+    public <T> TrySupplier<T> wrap(TrySupplier<? extends T> supplier, Duration maxWait) {
+        Objects.requireNonNull(supplier);
+        long maxWaitNanos = Math.max(0L, maxWait.toNanos());
+        return () -> {
+            permit(maxWaitNanos);
+            return supplier.get();
+        };
+    }
+
+    /**
+     * Wraps a function, failing with a {@link RateLimitException} instead of calling it when no permit is available.
+     *
+     * @param function the function to wrap
+     * @param <T> the type of the function arguments
+     * @param <R> the type of the function results
+     * @return a function calling the given one
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public <T, R> TryFunction<T, R> wrap(TryFunction<? super T, ? extends R> function) {
+        return wrap(function, Duration.ZERO);
+    }
+
+    /**
+     * Wraps a function, waiting for a permit before calling it,
+     * or failing with a {@link RateLimitException} if no permit is available within the given time.
+     *
+     * @param function the function to wrap
+     * @param maxWait the maximum time to wait for a permit
+     * @param <T> the type of the function arguments
+     * @param <R> the type of the function results
+     * @return a function calling the given one
+     * @throws NullPointerException if the function or the maximum time is {@code null}
+     */
+    public <T, R> TryFunction<T, R> wrap(TryFunction<? super T, ? extends R> function, Duration maxWait) {
+        Objects.requireNonNull(function);
+        long maxWaitNanos = Math.max(0L, maxWait.toNanos());
+        return t -> {
+            permit(maxWaitNanos);
+            return function.apply(t);
+        };
+    }
+
+    void permit(long maxWaitNanos) throws InterruptedException {
+        long refused = acquire(maxWaitNanos);
+        if (refused < 0L) throw new RateLimitException(-refused);
+    }
+
+    /**
+     * Returns the time since which the bucket is full, or a negative time if it is not.
+     */
+    long idleNanos(long now) {
+        return now - this.arrival;
+    }
+
+    /**
+     * Acquires a permit, waiting at most the given time, and returns the waited time,
+     * or the opposite of the time to wait if it was too long.
+     */
+    private long acquire(long maxWaitNanos) throws InterruptedException {
+        long now = this.clock.getAsLong();
+        long wait = reserve(now, maxWaitNanos);
+        if (wait <= 0L) return wait;
+        long deadline = now + wait;
+        long remaining;
+        while ((remaining = deadline - this.clock.getAsLong()) > 0L) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+        return wait;
+    }
+
+    /**
+     * Reserves a permit if it is available within the given time, and returns the time to wait for it,
+     * or the opposite of this time if it was too long.
+     */
+    private long reserve(long now, long maxWaitNanos) {
+        for (;;) {
+            long arrival = this.arrival;
+            long next = Math.max(arrival, now) + this.interval;
+            long wait = next - now - this.tolerance;
+            if (wait > maxWaitNanos) return -wait;
+            if (ARRIVAL.compareAndSet(this, arrival, next)) return Math.max(0L, wait);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.dwilliam.utils;
+
+/**
+ * Signals that a record of a file could not be decoded or parsed.
+ * The cause is the {@code Throwable} thrown while decoding or parsing the record.
+ */
+public final class RecordException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long offset;
+
+    /**
+     * Constructs a record exception.
+     *
+     * @param offset the offset of the first byte of the record in the file
+     * @param cause the {@code Throwable} thrown while decoding or parsing the record
+     */
+    public RecordException(long offset, Throwable cause) {
+        super("Invalid record at offset " + offset, cause);
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the offset of the first byte of the record in the file.
+     *
+     * @return an offset in bytes
+     */
+    public long offset() {
+        return this.offset;
+    }
+
+}
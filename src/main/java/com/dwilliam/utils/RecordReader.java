@@ -0,0 +1,252 @@
+package com.dwilliam.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the delimited records of a file, such as its lines, as {@code Try} outcomes of a parser.
+ * <p>
+ * Records are read from a {@code FileChannel}, optionally memory-mapped, and decoded into a reused
+ * {@code CharBuffer} given to the parser: the {@code CharSequence} is only valid during the call.
+ * A record which cannot be decoded or parsed yields a {@code Failure} containing a {@link RecordException}
+ * with the offset of the record, and the following records are still read.
+ * A record longer than the largest buffer, about 2 GiB, yields such a {@code Failure} without being read.
+ * The stream is split on record boundaries, so it can be parsed in parallel.
+ * It must be closed to close the file.
+ */
+public final class RecordReader {
+
+    private static final int WINDOW = 1 << 20;
+    private static final int MAX_WINDOW = Integer.MAX_VALUE - 8;
+
+    private RecordReader() {}
+
+    /**
+     * Streams the parsed lines of a UTF-8 file, read without memory mapping.
+     * Lines end with {@code \n} or {@code \r\n}.
+     *
+     * @param path the file
+     * @param parser the parser of a line
+     * @param <T> the type of the parsed records
+     * @return a lazy stream of the parsed lines, in file order
+     * @throws IOException if the file cannot be opened
+     * @throws NullPointerException if the path or the parser is {@code null}
+     */
+    public static <T> Stream<Try<T>> lines(Path path, TryFunction<? super CharSequence, ? extends T> parser) throws IOException {
+        return records(path, StandardCharsets.UTF_8, (byte) '\n', false, parser);
+    }
+
+    /**
+     * Streams the parsed records of a file.
+     * When the delimiter is {@code \n}, a {@code \r} ending a record is dropped.
+     *
+     * @param path the file
+     * @param charset the charset of the file, one of UTF-8, US-ASCII or ISO-8859-1
+     * @param delimiter the byte ending each record, an ASCII character
+     * @param mapped {@code true} to memory-map the file, {@code false} to read it into heap buffers
+     * @param parser the parser of a record
+     * @param <T> the type of the parsed records
+     * @return a lazy stream of the parsed records, in file order
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if the charset is not supported or the delimiter is not an ASCII character
+     * @throws NullPointerException if the path, the charset or the parser is {@code null}
+     */
+    public static <T> Stream<Try<T>> records(Path path, Charset charset, byte delimiter, boolean mapped,
+                                             TryFunction<? super CharSequence, ? extends T> parser) throws IOException {
+        return records(path, charset, delimiter, mapped, MAX_WINDOW, parser);
+    }
+
+    /**
+     * Streams the parsed records of a file, read through buffers of at most the given size.
+     */
+    static <T> Stream<Try<T>> records(Path path, Charset charset, byte delimiter, boolean mapped, int maxWindow,
+                                      TryFunction<? super CharSequence, ? extends T> parser) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(parser);
+        if (!charset.equals(StandardCharsets.UTF_8) && !charset.equals(StandardCharsets.US_ASCII)
+                && !charset.equals(StandardCharsets.ISO_8859_1)) {
+            throw new IllegalArgumentException("Unsupported charset: " + charset);
+        }
+        if (delimiter < 0) throw new IllegalArgumentException("Non ASCII delimiter: " + delimiter);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            RecordSpliterator<T> spliterator = new RecordSpliterator<>(channel, channel.size(), 0L, channel.size(),
+                    charset, delimiter, mapped, maxWindow, parser);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Owns the records starting in [position, end), the last one may end after end.
+     */
+    private static final class RecordSpliterator<T> implements Spliterator<Try<T>> {
+
+        private final FileChannel channel;
+        private final long size;
+        private final Charset charset;
+        private final byte delimiter;
+        private final boolean mapped;
+        // the largest record read, longer ones are only scanned for their end
+        private final int maxWindow;
+        private final TryFunction<? super CharSequence, ? extends T> parser;
+        private long position;
+        private final long end;
+        private ByteBuffer window;
+        private long windowStart;
+        private CharsetDecoder decoder;
+        private CharBuffer chars;
+
+        private RecordSpliterator(FileChannel channel, long size, long position, long end, Charset charset,
+                                  byte delimiter, boolean mapped, int maxWindow,
+                                  TryFunction<? super CharSequence, ? extends T> parser) {
+            this.channel = channel;
+            this.size = size;
+            this.position = position;
+            this.end = end;
+            this.charset = charset;
+            this.delimiter = delimiter;
+            this.mapped = mapped;
+            this.maxWindow = maxWindow;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Try<T>> action) {
+            Objects.requireNonNull(action);
+            if (this.position >= this.end || this.position >= this.size) return false;
+            long start = this.position;
+            long delimiterPosition = find(start);
+            this.position = delimiterPosition + 1;
+            action.accept(parse(start, delimiterPosition));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Try<T>> trySplit() {
+            long middle = (this.position + this.end) >>> 1;
+            if (middle <= this.position) return null;
+            long split = find(middle - 1) + 1;
+            if (split >= this.end) return null;
+            RecordSpliterator<T> prefix = new RecordSpliterator<>(this.channel, this.size, this.position, split,
+                    this.charset, this.delimiter, this.mapped, this.maxWindow, this.parser);
+            this.position = split;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(0L, Math.min(this.end, this.size) - this.position);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        /**
+         * Returns the position of the next delimiter from the given position, or the file size if there is none.
+         */
+        private long find(long from) {
+            ByteBuffer buffer = window(from, 1);
+            for (;;) {
+                int limit = buffer.limit();
+                for (int i = buffer.position(); i < limit; i++) {
+                    if (buffer.get(i) == this.delimiter) return this.windowStart + i;
+                }
+                if (this.windowStart + limit >= this.size) return this.size;
+                long available = this.windowStart + limit - from;
+                // the record does not fit in the window, map it again from the record start,
+                // or only look for its end past the window if it can't fit in any window
+                buffer = available < this.maxWindow
+                        ? window(from, (int) Math.min(this.maxWindow, Math.max(WINDOW, available * 2)))
+                        : window(this.windowStart + limit, this.maxWindow);
+            }
+        }
+
+        private Try<T> parse(long start, long delimiterPosition) {
+            if (delimiterPosition - start > this.maxWindow) {
+                return new Failure<>(new RecordException(start, new IOException("Record longer than " + this.maxWindow + " bytes")));
+            }
+            long stop = delimiterPosition;
+            ByteBuffer buffer = window(start, (int) (delimiterPosition - start));
+            if (this.delimiter == '\n' && stop > start && buffer.get((int) (stop - 1 - this.windowStart)) == '\r') stop--;
+            ByteBuffer bytes = buffer.duplicate().limit((int) (stop - this.windowStart));
+            try {
+                CharSequence record = decode(bytes);
+                return new Success<>(this.parser.apply(record));
+            } catch (Throwable throwable) {
+                return new Failure<>(new RecordException(start, throwable));
+            }
+        }
+
+        private CharSequence decode(ByteBuffer bytes) throws IOException {
+            if (this.decoder == null) {
+                this.decoder = this.charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT);
+                this.chars = CharBuffer.allocate(256);
+            }
+            int capacity = bytes.remaining();
+            if (this.chars.capacity() < capacity) this.chars = CharBuffer.allocate(Math.max(capacity, this.chars.capacity() * 2));
+            this.decoder.reset();
+            this.chars.clear();
+            CoderResult result = this.decoder.decode(bytes, this.chars, true);
+            if (result.isUnderflow()) result = this.decoder.flush(this.chars);
+            if (!result.isUnderflow()) result.throwException();
+            return this.chars.flip();
+        }
+
+        /**
+         * Returns a buffer containing at least the given length from the given position, or until the end of the file,
+         * positioned at the given position.
+         */
+        private ByteBuffer window(long from, int length) {
+            long needed = Math.min(this.size, from + length);
+            if (this.window == null || from < this.windowStart || needed > this.windowStart + this.window.limit()) {
+                int mapping = (int) Math.min(this.size - from, Math.min(this.maxWindow, Math.max(length, WINDOW)));
+                try {
+                    this.window = this.mapped ? this.channel.map(FileChannel.MapMode.READ_ONLY, from, mapping) : read(from, mapping);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.windowStart = from;
+            }
+            return this.window.position((int) (from - this.windowStart));
+        }
+
+        private ByteBuffer read(long from, int length) throws IOException {
+            ByteBuffer buffer = this.window != null && !this.window.isDirect() && this.window.capacity() >= length
+                    ? this.window.clear().limit(length) : ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (this.channel.read(buffer, from + buffer.position()) < 0) break;
+            }
+            return buffer.flip();
+        }
+
+    }
+
+}
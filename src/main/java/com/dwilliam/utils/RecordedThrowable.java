@@ -0,0 +1,49 @@
+package com.dwilliam.utils;
+
+import java.util.Objects;
+
+/**
+ * A {@code Throwable} restored from a recorded descriptor, such as a checkpoint file.
+ * It keeps the name of the original {@code Throwable} class, which may not be loadable by the reader,
+ * and prints itself like the original {@code Throwable}.
+ * No stack trace is filled in when it is created.
+ */
+public final class RecordedThrowable extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String className;
+
+    /**
+     * Constructs a recorded throwable.
+     *
+     * @param className the name of the original {@code Throwable} class
+     * @param message the message of the original {@code Throwable}, may be {@code null}
+     * @throws NullPointerException if the class name is {@code null}
+     */
+    public RecordedThrowable(String className, String message) {
+        super(message);
+        this.className = Objects.requireNonNull(className);
+    }
+
+    /**
+     * Returns the name of the original {@code Throwable} class.
+     *
+     * @return the name of the original {@code Throwable} class
+     */
+    public String className() {
+        return this.className;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message != null ? this.className + ": " + message : this.className;
+    }
+
+}
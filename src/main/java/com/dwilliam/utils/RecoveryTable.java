@@ -0,0 +1,124 @@
+package com.dwilliam.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A dispatch table mapping {@code Throwable} classes to handlers.
+ * It resolves the handler registered for the most specific superclass of a thrown class,
+ * and caches the resolution per concrete class, so a dispatch costs a single lookup.
+ * <p>
+ * As a {@code TryFunction}, a table can be given to {@code Try.recover(TryFunction)} to recover values,
+ * or to {@code Try.mapThrowable(TryFunction)} to translate throwables.
+ * A throwable without handler is rethrown as is, so it stays a {@code Failure} unchanged.
+ *
+ * <pre>{@code
+ * RecoveryTable<Integer> table = RecoveryTable.<Integer>builder()
+ *         .on(FileNotFoundException.class, e -> 0)
+ *         .on(IOException.class, e -> -1)
+ *         .build();
+ * Try<Integer> recovered = code.recover(table);
+ * }</pre>
+ *
+ * @param <R> the type of the handlers results
+ */
+public final class RecoveryTable<R> implements TryFunction<Throwable, R> {
+
+    private static final TryFunction<Throwable, Object> RETHROW = throwable -> { throw throwable; };
+
+    private final Map<Class<?>, TryFunction<Throwable, ? extends R>> handlers;
+
+    private final ClassValue<TryFunction<Throwable, ? extends R>> resolved = new ClassValue<>() {
+        @Override
+        protected TryFunction<Throwable, ? extends R> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private RecoveryTable(Map<Class<?>, TryFunction<Throwable, ? extends R>> handlers) {
+        this.handlers = handlers;
+    }
+
+    /**
+     * Applies the handler registered for the most specific superclass of the given throwable class.
+     *
+     * @param throwable the throwable to handle
+     * @return the result of the handler
+     * @throws Throwable the given throwable if there is no handler for its class,
+     *         or the throwable thrown by the handler
+     * @throws NullPointerException if the throwable is {@code null}
+     */
+    @Override
+    public R apply(Throwable throwable) throws Throwable {
+        return this.resolved.get(throwable.getClass()).apply(throwable);
+    }
+
+    /**
+     * Returns {@code true} if a handler is registered for the given throwable class or one of its superclasses.
+     *
+     * @param type the throwable class
+     * @return {@code true} if the throwable class has a handler, {@code false} otherwise
+     */
+    public boolean handles(Class<? extends Throwable> type) {
+        return this.resolved.get(type) != RETHROW;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TryFunction<Throwable, ? extends R> resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            TryFunction<Throwable, ? extends R> handler = this.handlers.get(c);
+            if (handler != null) return handler;
+        }
+        return (TryFunction<Throwable, ? extends R>) (TryFunction<Throwable, ?>) RETHROW;
+    }
+
+    /**
+     * Returns a new builder of {@code RecoveryTable}.
+     *
+     * @param <R> the type of the handlers results
+     * @return a new builder
+     */
+    public static <R> Builder<R> builder() {
+        return new Builder<>();
+    }
+
+    public static final class Builder<R> {
+
+        private final Map<Class<?>, TryFunction<Throwable, ? extends R>> handlers = new HashMap<>();
+
+        private Builder() {}
+
+        /**
+         * Registers the handler of the given throwable class and its subclasses.
+         * A handler registered for a subclass takes precedence.
+         *
+         * @param type the throwable class
+         * @param handler the handler of the throwable class
+         * @param <E> the type of the throwable
+         * @return this builder
+         * @throws NullPointerException if the throwable class or the handler is {@code null}
+         * @throws IllegalArgumentException if a handler is already registered for this throwable class
+         */
+        @SuppressWarnings("unchecked")
+        public <E extends Throwable> Builder<R> on(Class<E> type, TryFunction<? super E, ? extends R> handler) {
+            Objects.requireNonNull(type);
+            Objects.requireNonNull(handler);
+            if (this.handlers.putIfAbsent(type, (TryFunction<Throwable, ? extends R>) handler) != null) {
+                throw new IllegalArgumentException("Handler already registered for " + type.getName());
+            }
+            return this;
+        }
+
+        /**
+         * Builds the {@code RecoveryTable}.
+         *
+         * @return a new {@code RecoveryTable}
+         */
+        public RecoveryTable<R> build() {
+            return new RecoveryTable<>(new HashMap<>(this.handlers));
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.dwilliam.utils;
+
+/**
+ * Throws throwables as is, checked exceptions included, without declaring nor wrapping them.
+ */
+final class Sneaky {
+
+    private Sneaky() {}
+
+    /**
+     * Throws the given throwable. The return type lets callers write {@code throw Sneaky.rethrow(throwable)},
+     * so the compiler knows the statement completes abruptly.
+     *
+     * @param throwable the throwable to throw
+     * @return never returns
+     */
+    static RuntimeException rethrow(Throwable throwable) {
+        throw Sneaky.<RuntimeException>sneaky(throwable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneaky(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+}
@@ -7,6 +7,9 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public record Success<T>(T value) implements Try<T> {
 
@@ -30,6 +33,11 @@ public record Success<T>(T value) implements Try<T> {
         return this.value;
     }
 
+    @Override
+    public T getOrRethrow() {
+        return this.value;
+    }
+
     @Override
     public Throwable getThrowable() {
         throw new NoSuchElementException("Not a Failure");
@@ -80,7 +88,7 @@ public record Success<T>(T value) implements Try<T> {
         try {
             return mapper.apply(this.value);
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -90,7 +98,7 @@ public record Success<T>(T value) implements Try<T> {
         try {
             return mapper.apply(this.value);
         } catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -192,6 +200,30 @@ public record Success<T>(T value) implements Try<T> {
         return new Failure<>(new UnsupportedOperationException());
     }
 
+    @Override
+    public <U> U fold(Function<? super T, ? extends U> onSuccess, Function<? super Throwable, ? extends U> onFailure) {
+        Objects.requireNonNull(onFailure);
+        return Objects.requireNonNull(onSuccess).apply(this.value);
+    }
+
+    @Override
+    public int foldToInt(ToIntFunction<? super T> onSuccess, ToIntFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onFailure);
+        return Objects.requireNonNull(onSuccess).applyAsInt(this.value);
+    }
+
+    @Override
+    public long foldToLong(ToLongFunction<? super T> onSuccess, ToLongFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onFailure);
+        return Objects.requireNonNull(onSuccess).applyAsLong(this.value);
+    }
+
+    @Override
+    public double foldToDouble(ToDoubleFunction<? super T> onSuccess, ToDoubleFunction<? super Throwable> onFailure) {
+        Objects.requireNonNull(onFailure);
+        return Objects.requireNonNull(onSuccess).applyAsDouble(this.value);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
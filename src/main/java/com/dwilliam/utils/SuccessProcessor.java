@@ -0,0 +1,81 @@
+package com.dwilliam.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * A {@code Flow.Processor} applying a {@code TryFunction} to each upstream item,
+ * publishing the values of the {@code Success} downstream
+ * and the throwables of the {@code Failure} to a separate {@linkplain #errors() error publisher}.
+ * A {@code null} value is published as a {@code NullPointerException} to the error publisher.
+ * <p>
+ * At most {@code concurrency} items are processed at once, and requested upstream only as long as
+ * every subscriber buffer, of {@code bufferCapacity} elements, has room for them.
+ * With a concurrency greater than 1, values may be published out of the upstream order.
+ * Both publishers are completed, or given the upstream error, once every requested item is processed.
+ * Nothing is requested upstream before the first subscriber of this processor, subscribing to the error publisher
+ * is not enough, and the upstream subscription is cancelled once this processor is closed or has no subscriber left.
+ *
+ * @param <T> the type of the upstream items
+ * @param <R> the type of the published values
+ */
+public final class SuccessProcessor<T, R> extends AbstractTryProcessor<T, R, R> {
+
+    private final SubmissionPublisher<Throwable> errors;
+
+    /**
+     * Constructs a processor applying the function on the common pool, one item at a time.
+     *
+     * @param mapper the function to apply to each item
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public SuccessProcessor(TryFunction<? super T, ? extends R> mapper) {
+        this(mapper, ForkJoinPool.commonPool(), 1, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Constructs a processor.
+     *
+     * @param mapper the function to apply to each item
+     * @param executor the executor applying the function
+     * @param concurrency the maximum number of items processed at once
+     * @param bufferCapacity the maximum number of elements buffered per subscriber
+     * @throws NullPointerException if the function or the executor is {@code null}
+     * @throws IllegalArgumentException if the concurrency or the buffer capacity is not positive
+     */
+    public SuccessProcessor(TryFunction<? super T, ? extends R> mapper, Executor executor, int concurrency, int bufferCapacity) {
+        super(mapper, executor, concurrency, bufferCapacity);
+        this.errors = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+    }
+
+    /**
+     * Returns the publisher of the throwables of the {@code Failure}.
+     * Its subscribers apply backpressure like the subscribers of this processor.
+     *
+     * @return the error publisher
+     */
+    public Flow.Publisher<Throwable> errors() {
+        return this.errors;
+    }
+
+    @Override
+    void emit(Try<R> outcome) {
+        if (outcome.isFailure()) this.errors.submit(outcome.getThrowable());
+        else if (outcome.get() == null) this.errors.submit(new NullPointerException("Null value"));
+        else submit(outcome.get());
+    }
+
+    @Override
+    void finish(Throwable error) {
+        if (error != null) {
+            this.errors.closeExceptionally(error);
+            closeExceptionally(error);
+        } else {
+            this.errors.close();
+            close();
+        }
+    }
+
+}
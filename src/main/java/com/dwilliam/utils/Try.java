@@ -1,12 +1,21 @@
 package com.dwilliam.utils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public sealed interface Try<T> permits Failure, Success {
 
@@ -41,6 +50,16 @@ public sealed interface Try<T> permits Failure, Success {
      */
     T value();
 
+    /**
+     * Returns the value from this {@code Success} or
+     * throws the caught {@code Throwable} as is in case of {@code Failure}.
+     * Unlike {@link #get()}, the {@code Throwable} is not wrapped, even if it's a checked exception,
+     * so no other stack trace is filled in.
+     *
+     * @return the value if this {@code Try} is a {@code Success}
+     */
+    T getOrRethrow();
+
     /**
      * Returns the throwable from this {@code Failure} or
      * throws a {@code UnsupportedOperationException} if this {@code Try} is a {@code Success}.
@@ -332,6 +351,52 @@ public sealed interface Try<T> permits Failure, Success {
      */
     Try<Throwable> failed();
 
+    /**
+     * Applies the first function to the value if this {@code Try} is a {@code Success}
+     * or the second function to the caught {@code Throwable} if this {@code Try} is a {@code Failure}.
+     * Prefer it to a {@code isSuccess()} check followed by {@code get()} or {@code getThrowable()}.
+     *
+     * @param onSuccess the function to apply to the value
+     * @param onFailure the function to apply to the caught {@code Throwable}
+     * @param <U> the type of the result of the functions
+     * @return the result of the applied function
+     * @throws NullPointerException if one of the functions is {@code null}
+     */
+    <U> U fold(Function<? super T, ? extends U> onSuccess, Function<? super Throwable, ? extends U> onFailure);
+
+    /**
+     * Likes {@code fold(Function<? super T, ? extends U>, Function<? super Throwable, ? extends U>)}
+     * but with functions returning an {@code int}.
+     *
+     * @param onSuccess the function to apply to the value
+     * @param onFailure the function to apply to the caught {@code Throwable}
+     * @return the result of the applied function
+     * @throws NullPointerException if one of the functions is {@code null}
+     */
+    int foldToInt(ToIntFunction<? super T> onSuccess, ToIntFunction<? super Throwable> onFailure);
+
+    /**
+     * Likes {@code fold(Function<? super T, ? extends U>, Function<? super Throwable, ? extends U>)}
+     * but with functions returning a {@code long}.
+     *
+     * @param onSuccess the function to apply to the value
+     * @param onFailure the function to apply to the caught {@code Throwable}
+     * @return the result of the applied function
+     * @throws NullPointerException if one of the functions is {@code null}
+     */
+    long foldToLong(ToLongFunction<? super T> onSuccess, ToLongFunction<? super Throwable> onFailure);
+
+    /**
+     * Likes {@code fold(Function<? super T, ? extends U>, Function<? super Throwable, ? extends U>)}
+     * but with functions returning a {@code double}.
+     *
+     * @param onSuccess the function to apply to the value
+     * @param onFailure the function to apply to the caught {@code Throwable}
+     * @return the result of the applied function
+     * @throws NullPointerException if one of the functions is {@code null}
+     */
+    double foldToDouble(ToDoubleFunction<? super T> onSuccess, ToDoubleFunction<? super Throwable> onFailure);
+
     /**
      * Tries a value.
      *
@@ -357,7 +422,7 @@ public sealed interface Try<T> permits Failure, Success {
             return new Success<>(supplier.get());
         }
         catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
         }
     }
 
@@ -375,8 +440,122 @@ public sealed interface Try<T> permits Failure, Success {
             return new Success<>(supplier.get());
         }
         catch (Throwable throwable) {
-            return new Failure<>(throwable);
+            return new Failure<>(TryProvenance.attach(throwable));
+        }
+    }
+
+    /**
+     * Tries every given supplier, even if some of them fail.
+     *
+     * @param suppliers the suppliers used to make the {@code Try}
+     * @param <T> the type of the values returned by the suppliers
+     * @return a {@code Success} containing the values in the order of the suppliers if every supplier succeeded,
+     *         a {@code Failure} containing an {@code AccumulatedException} holding every caught {@code Throwable} otherwise
+     * @throws NullPointerException if the suppliers list or one of the suppliers is {@code null}
+     */
+    static <T> Try<List<T>> all(List<? extends TrySupplier<? extends T>> suppliers) {
+        Objects.requireNonNull(suppliers);
+        List<Try<? extends T>> tries = new ArrayList<>(suppliers.size());
+        for (TrySupplier<? extends T> supplier : suppliers) {
+            tries.add(newTry(supplier));
+        }
+        return accumulate(tries);
+    }
+
+    /**
+     * Likes {@code all(List<? extends TrySupplier<? extends T>>)} but runs the suppliers
+     * concurrently on the given executor, which is useful for expensive suppliers such as remote lookups.
+     * A supplier rejected by the executor fails with its {@code RejectedExecutionException}.
+     *
+     * @param suppliers the suppliers used to make the {@code Try}
+     * @param executor the executor running the suppliers
+     * @param <T> the type of the values returned by the suppliers
+     * @return a {@code Success} containing the values in the order of the suppliers if every supplier succeeded,
+     *         a {@code Failure} containing an {@code AccumulatedException} holding every caught {@code Throwable} otherwise
+     * @throws NullPointerException if the suppliers list, one of the suppliers or the executor is {@code null}
+     */
+    static <T> Try<List<T>> all(List<? extends TrySupplier<? extends T>> suppliers, Executor executor) {
+        Objects.requireNonNull(suppliers);
+        Objects.requireNonNull(executor);
+        List<CompletableFuture<Try<? extends T>>> futures = new ArrayList<>(suppliers.size());
+        for (TrySupplier<? extends T> supplier : suppliers) {
+            Objects.requireNonNull(supplier);
+            CompletableFuture<Try<? extends T>> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> newTry(supplier), executor);
+            } catch (RejectedExecutionException e) {
+                // the suppliers already submitted are still joined
+                future = CompletableFuture.completedFuture(new Failure<>(e));
+            }
+            futures.add(future);
+        }
+        List<Try<? extends T>> tries = new ArrayList<>(futures.size());
+        for (CompletableFuture<Try<? extends T>> future : futures) {
+            tries.add(future.join());
+        }
+        return accumulate(tries);
+    }
+
+    /**
+     * Validates a value with every given validator, even if some of them fail.
+     * A validator rejects the value by throwing a {@code Throwable}, its returned value is ignored.
+     *
+     * @param value the value to validate
+     * @param validators the validators applied to the value
+     * @param <T> the type of the value
+     * @return a {@code Success} containing the value if every validator succeeded,
+     *         a {@code Failure} containing an {@code AccumulatedException} holding every caught {@code Throwable} otherwise
+     * @throws NullPointerException if the validators list or one of the validators is {@code null}
+     */
+    static <T> Try<T> validate(T value, List<? extends TryFunction<? super T, ?>> validators) {
+        return all(bind(value, validators)).thenValue(value);
+    }
+
+    /**
+     * Likes {@code validate(T, List<? extends TryFunction<? super T, ?>>)} but runs the validators
+     * concurrently on the given executor, which is useful for expensive validators such as remote lookups.
+     * A validator rejected by the executor fails with its {@code RejectedExecutionException}.
+     *
+     * @param value the value to validate
+     * @param validators the validators applied to the value
+     * @param executor the executor running the validators
+     * @param <T> the type of the value
+     * @return a {@code Success} containing the value if every validator succeeded,
+     *         a {@code Failure} containing an {@code AccumulatedException} holding every caught {@code Throwable} otherwise
+     * @throws NullPointerException if the validators list, one of the validators or the executor is {@code null}
+     */
+    static <T> Try<T> validate(T value, List<? extends TryFunction<? super T, ?>> validators, Executor executor) {
+        return all(bind(value, validators), executor).thenValue(value);
+    }
+
+    private static <T> List<TrySupplier<?>> bind(T value, List<? extends TryFunction<? super T, ?>> validators) {
+        Objects.requireNonNull(validators);
+        List<TrySupplier<?>> suppliers = new ArrayList<>(validators.size());
+        for (TryFunction<? super T, ?> validator : validators) {
+            Objects.requireNonNull(validator);
+            suppliers.add(() -> validator.apply(value));
+        }
+        return suppliers;
+    }
+
+    private static <T> Try<List<T>> accumulate(List<Try<? extends T>> tries) {
+        int failures = 0;
+        for (Try<? extends T> t : tries) {
+            if (t.isFailure()) failures++;
+        }
+        if (failures == 0) {
+            List<T> values = new ArrayList<>(tries.size());
+            for (Try<? extends T> t : tries) {
+                values.add(t.get());
+            }
+            return new Success<>(Collections.unmodifiableList(values));
+        }
+        Throwable[] throwables = new Throwable[failures];
+        int i = 0;
+        for (Try<? extends T> t : tries) {
+            if (t.isFailure()) throwables[i++] = t.getThrowable();
         }
+        return new Failure<>(new AccumulatedException(throwables));
     }
 
 }
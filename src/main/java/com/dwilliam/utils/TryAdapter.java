@@ -0,0 +1,41 @@
+package com.dwilliam.utils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface for which the {@code commons-try-processor} annotation processor generates an adapter.
+ * <p>
+ * The adapter is a final class of the same package wrapping an implementation of the interface.
+ * It has a method for each method of the interface, with the same parameters,
+ * returning the outcome of the delegated call as a {@code Try}: {@code Try<Void>} for {@code void} methods,
+ * a {@code Try} of the boxed type for primitive results.
+ * The generated code calls the delegate directly, no reflection is used at runtime.
+ *
+ * <pre>{@code
+ * @TryAdapter
+ * public interface UserService {
+ *     User find(long id) throws IOException;
+ * }
+ *
+ * Try<User> user = new UserServiceTry(service).find(42);
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface TryAdapter {
+
+    /**
+     * Returns the simple name of the generated adapter class.
+     * Defaults to the name of the interface followed by {@code Try},
+     * prefixed with the names of its enclosing types separated by {@code _} for a nested interface.
+     *
+     * @return the simple name of the generated class, or an empty string for the default name
+     */
+    String value() default "";
+
+}
@@ -0,0 +1,292 @@
+package com.dwilliam.utils;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A fixed-size array of {@code Try} outcomes, stored in columns instead of {@code Success} and {@code Failure} records.
+ * Each element is a single reference holding either the value or the caught {@code Throwable},
+ * and a bit set flags the failed indices.
+ * {@code Try} instances are only created on demand, by {@link #get(int)} or by iterating.
+ * <p>
+ * This class is not synchronized, concurrent writes must be synchronized externally.
+ *
+ * @param <T> the type of the values
+ */
+public final class TryArray<T> implements Iterable<Try<T>> {
+
+    private final Object[] elements;
+    private final BitSet failures;
+
+    /**
+     * Constructs an array of the specified size, whose elements are {@code Success} containing {@code null}.
+     *
+     * @param size the size of the array
+     * @throws NegativeArraySizeException if the size is negative
+     */
+    public TryArray(int size) {
+        this.elements = new Object[size];
+        this.failures = new BitSet(size);
+    }
+
+    /**
+     * Constructs an array containing the outcomes of the specified collection, in its iteration order.
+     *
+     * @param tries the outcomes
+     * @param <T> the type of the values
+     * @return a new {@code TryArray}
+     * @throws NullPointerException if the collection or one of its outcomes is {@code null}
+     */
+    public static <T> TryArray<T> of(Collection<? extends Try<? extends T>> tries) {
+        TryArray<T> array = new TryArray<>(tries.size());
+        int i = 0;
+        for (Try<? extends T> t : tries) {
+            array.set(i++, t);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.elements.length;
+    }
+
+    /**
+     * Returns {@code true} if the element at the specified position is a {@code Success}.
+     *
+     * @param index index of the element
+     * @return {@code true} if the element is a {@code Success}, {@code false} otherwise
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isSuccess(int index) {
+        return !isFailure(index);
+    }
+
+    /**
+     * Returns {@code true} if the element at the specified position is a {@code Failure}.
+     *
+     * @param index index of the element
+     * @return {@code true} if the element is a {@code Failure}, {@code false} otherwise
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isFailure(int index) {
+        Objects.checkIndex(index, this.elements.length);
+        return this.failures.get(index);
+    }
+
+    /**
+     * Returns the element at the specified position as a new {@code Try}.
+     *
+     * @param index index of the element
+     * @return a {@code Success} or a {@code Failure}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public Try<T> get(int index) {
+        Object element = this.elements[index];
+        return this.failures.get(index) ? new Failure<>((Throwable) element) : new Success<>((T) element);
+    }
+
+    /**
+     * Returns the value of the element at the specified position.
+     *
+     * @param index index of the element
+     * @return the value if the element is a {@code Success}
+     * @throws NoSuchElementException if the element is a {@code Failure}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T value(int index) {
+        Object element = this.elements[index];
+        if (this.failures.get(index)) throw new NoSuchElementException((Throwable) element);
+        return (T) element;
+    }
+
+    /**
+     * Returns the throwable of the element at the specified position.
+     *
+     * @param index index of the element
+     * @return the throwable if the element is a {@code Failure}
+     * @throws NoSuchElementException if the element is a {@code Success}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Throwable throwable(int index) {
+        Object element = this.elements[index];
+        if (!this.failures.get(index)) throw new NoSuchElementException("Not a Failure");
+        return (Throwable) element;
+    }
+
+    /**
+     * Replaces the element at the specified position with the specified outcome.
+     *
+     * @param index index of the element
+     * @param t the outcome
+     * @throws NullPointerException if the outcome is {@code null}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, Try<? extends T> t) {
+        if (Objects.requireNonNull(t).isSuccess()) setValue(index, t.get());
+        else setThrowable(index, t.getThrowable());
+    }
+
+    /**
+     * Replaces the element at the specified position with a {@code Success} containing the specified value.
+     *
+     * @param index index of the element
+     * @param value the value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setValue(int index, T value) {
+        this.elements[index] = value;
+        this.failures.clear(index);
+    }
+
+    /**
+     * Replaces the element at the specified position with a {@code Failure} containing the specified throwable.
+     *
+     * @param index index of the element
+     * @param throwable the throwable
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setThrowable(int index, Throwable throwable) {
+        this.elements[index] = throwable;
+        this.failures.set(index);
+    }
+
+    /**
+     * Returns the number of {@code Success}.
+     *
+     * @return the number of {@code Success}
+     */
+    public int successCount() {
+        return this.elements.length - this.failures.cardinality();
+    }
+
+    /**
+     * Returns the number of {@code Failure}.
+     *
+     * @return the number of {@code Failure}
+     */
+    public int failureCount() {
+        return this.failures.cardinality();
+    }
+
+    /**
+     * Returns a stream of the indices of the {@code Success}, in increasing order.
+     *
+     * @return a stream of indices
+     */
+    public IntStream successIndices() {
+        return IntStream.range(0, this.elements.length).filter(i -> !this.failures.get(i));
+    }
+
+    /**
+     * Returns a stream of the indices of the {@code Failure}, in increasing order.
+     *
+     * @return a stream of indices
+     */
+    public IntStream failureIndices() {
+        return this.failures.stream();
+    }
+
+    /**
+     * Returns a stream of the values of the {@code Success}, in index order.
+     *
+     * @return a stream of values
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<T> successes() {
+        return successIndices().mapToObj(i -> (T) this.elements[i]);
+    }
+
+    /**
+     * Returns a stream of the throwables of the {@code Failure}, in index order.
+     *
+     * @return a stream of throwables
+     */
+    public Stream<Throwable> failures() {
+        return failureIndices().mapToObj(i -> (Throwable) this.elements[i]);
+    }
+
+    /**
+     * Returns a stream of the elements as {@code Try}, in index order.
+     * The stream is efficiently splittable for parallel processing.
+     *
+     * @return a stream of {@code Try}
+     */
+    public Stream<Try<T>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Iterator<Try<T>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    public Spliterator<Try<T>> spliterator() {
+        return new TrySpliterator(0, this.elements.length);
+    }
+
+    private final class TrySpliterator implements Spliterator<Try<T>> {
+
+        private int index;
+        private final int fence;
+
+        private TrySpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Try<T>> action) {
+            Objects.requireNonNull(action);
+            if (this.index >= this.fence) return false;
+            action.accept(get(this.index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Try<T>> action) {
+            Objects.requireNonNull(action);
+            for (int i = this.index; i < this.fence; i++) {
+                action.accept(get(i));
+            }
+            this.index = this.fence;
+        }
+
+        @Override
+        public Spliterator<Try<T>> trySplit() {
+            int origin = this.index;
+            int middle = (origin + this.fence) >>> 1;
+            if (origin >= middle) return null;
+            this.index = middle;
+            return new TrySpliterator(origin, middle);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+
+    }
+
+}
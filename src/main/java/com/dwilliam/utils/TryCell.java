@@ -0,0 +1,263 @@
+package com.dwilliam.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A write-once cell holding a {@code Try}, handing a result from producer threads to consumer threads.
+ * <p>
+ * The cell is completed at most once, by a compare-and-set: later completions are ignored.
+ * Callbacks and waiting threads are pushed on a lock-free stack until then.
+ * Callbacks registered before the completion are run by the completing thread, in registration order,
+ * those registered after are run immediately by the registering thread.
+ * Waiting threads are parked with {@code LockSupport}, so waiting virtual threads release their carrier.
+ * A waiter timing out or interrupted unlinks itself, and the other cancelled waiters, from the stack.
+ * Once completed, reading the result is a single volatile read.
+ *
+ * @param <T> the type of the value
+ */
+public final class TryCell<T> {
+
+    private static final VarHandle STATE;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(TryCell.class, "state", Object.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // null or a Node while incomplete, the Try once completed
+    private volatile Object state;
+
+    /**
+     * Completes this cell with the given {@code Try}, if it's not already completed.
+     *
+     * @param result the result
+     * @return {@code true} if this call completed the cell, {@code false} if it was already completed
+     * @throws NullPointerException if the result is {@code null}
+     */
+    public boolean complete(Try<? extends T> result) {
+        Objects.requireNonNull(result);
+        Object s;
+        do {
+            s = this.state;
+            if (s instanceof Try) return false;
+        } while (!STATE.compareAndSet(this, s, result));
+        if (s == null) return true;
+        // cancelled waiters may still be unlinking nodes, so the stack is read but not reversed in place
+        ArrayDeque<Node> nodes = new ArrayDeque<>();
+        for (Node node = (Node) s; node != null; node = node.next) {
+            nodes.push(node);
+        }
+        // the last pushed node is the first registered one
+        for (Node node : nodes) {
+            if (node.callback != null) {
+                run(node.callback, result);
+            } else {
+                Thread waiter = node.waiter;
+                if (waiter != null) LockSupport.unpark(waiter);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Completes this cell with a {@code Success} containing the given value, if it's not already completed.
+     *
+     * @param value the value
+     * @return {@code true} if this call completed the cell, {@code false} if it was already completed
+     */
+    public boolean succeed(T value) {
+        return complete(new Success<>(value));
+    }
+
+    /**
+     * Completes this cell with a {@code Failure} containing the given throwable, if it's not already completed.
+     *
+     * @param throwable the throwable
+     * @return {@code true} if this call completed the cell, {@code false} if it was already completed
+     */
+    public boolean fail(Throwable throwable) {
+        return complete(new Failure<>(throwable));
+    }
+
+    /**
+     * Completes this cell by trying the given supplier, if it's not already completed.
+     * The supplier is called even if the cell is completed meanwhile.
+     *
+     * @param supplier the supplier used to make the {@code Try}
+     * @return {@code true} if this call completed the cell, {@code false} if it was already completed
+     * @throws NullPointerException if the supplier is {@code null}
+     */
+    public boolean completeWith(TrySupplier<? extends T> supplier) {
+        return complete(Try.newTry(supplier));
+    }
+
+    /**
+     * Returns {@code true} if this cell is completed.
+     *
+     * @return {@code true} if this cell is completed, {@code false} otherwise
+     */
+    public boolean isDone() {
+        return this.state instanceof Try;
+    }
+
+    /**
+     * Returns an {@code Optional} containing the result if this cell is completed
+     * or an empty {@code Optional} otherwise.
+     *
+     * @return an {@code Optional} containing the result if this cell is completed
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Try<T>> poll() {
+        Object s = this.state;
+        return s instanceof Try ? Optional.of((Try<T>) s) : Optional.empty();
+    }
+
+    /**
+     * Performs the given action on the result once this cell is completed.
+     * A {@code Throwable} thrown by the action is given to the uncaught exception handler of the running thread.
+     *
+     * @param callback the action
+     * @throws NullPointerException if the action is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public void onComplete(Consumer<? super Try<T>> callback) {
+        Objects.requireNonNull(callback);
+        Node node = null;
+        for (;;) {
+            Object s = this.state;
+            if (s instanceof Try) {
+                run(callback, (Try<T>) s);
+                return;
+            }
+            if (node == null) node = new Node((Consumer<Object>) callback, null);
+            node.next = (Node) s;
+            if (STATE.compareAndSet(this, s, node)) return;
+        }
+    }
+
+    /**
+     * Waits until this cell is completed, and returns its result.
+     *
+     * @return the result
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public Try<T> await() throws InterruptedException {
+        return await(false, 0L);
+    }
+
+    /**
+     * Waits at most the given time until this cell is completed, and returns its result.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout argument
+     * @return the result
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws TimeoutException if the cell is not completed in time
+     * @throws NullPointerException if the time unit is {@code null}
+     */
+    public Try<T> await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Try<T> result = await(true, unit.toNanos(timeout));
+        if (result == null) throw new TimeoutException();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Try<T> await(boolean timed, long nanos) throws InterruptedException {
+        Object s = this.state;
+        if (s instanceof Try) return (Try<T>) s;
+        if (Thread.interrupted()) throw new InterruptedException();
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        Node node = new Node(null, Thread.currentThread());
+        for (;;) {
+            s = this.state;
+            if (s instanceof Try) return (Try<T>) s;
+            node.next = (Node) s;
+            if (STATE.compareAndSet(this, s, node)) break;
+        }
+        while (!((s = this.state) instanceof Try)) {
+            if (timed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    cancel(node);
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted()) {
+                cancel(node);
+                throw new InterruptedException();
+            }
+        }
+        return (Try<T>) s;
+    }
+
+    /**
+     * Marks the node of a waiter giving up as cancelled, then unlinks the cancelled nodes from the stack.
+     * Concurrent unlinks may leave a cancelled node linked, it is unlinked by the next cancellation,
+     * but a live node is never unlinked as only cancelled nodes are skipped.
+     */
+    private void cancel(Node node) {
+        node.waiter = null;
+        Object s;
+        while ((s = this.state) instanceof Node head && head.isCancelled()) {
+            STATE.compareAndSet(this, head, head.next);
+        }
+        if (!(s instanceof Node)) return;
+        Node p = (Node) s;
+        for (Node q = p.next; q != null; ) {
+            Node next = q.next;
+            if (!q.isCancelled()) {
+                p = q;
+                q = next;
+            } else if (NEXT.compareAndSet(p, q, next)) {
+                q = next;
+            } else {
+                q = p.next;
+            }
+        }
+    }
+
+    private static <T> void run(Consumer<? super Try<T>> callback, Try<T> result) {
+        try {
+            callback.accept(result);
+        } catch (Throwable throwable) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+        }
+    }
+
+    private static final class Node {
+
+        private final Consumer<Object> callback;
+        // cleared when the waiter gives up
+        private volatile Thread waiter;
+        private volatile Node next;
+
+        private Node(Consumer<Object> callback, Thread waiter) {
+            this.callback = callback;
+            this.waiter = waiter;
+        }
+
+        private boolean isCancelled() {
+            return this.callback == null && this.waiter == null;
+        }
+
+    }
+
+}
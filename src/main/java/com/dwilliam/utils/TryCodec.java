@@ -0,0 +1,335 @@
+package com.dwilliam.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compact binary codec of {@code Try}, writing to and reading from {@code ByteBuffer}, heap or direct.
+ * <p>
+ * The value of a {@code Success} is written by a {@link ValueCodec}.
+ * The {@code Throwable} of a {@code Failure} is written as its class name, message and stack trace,
+ * followed by its causes. Stack traces are truncated to a maximum number of frames,
+ * the frames a cause shares with its enclosing {@code Throwable} are written once,
+ * and repeated strings such as class names are written once per encoded {@code Try}.
+ * A decoded {@code Failure} contains a {@link RecordedThrowable}, no class is loaded by reflection.
+ * A {@code Failure} containing {@code null} is written as an empty chain, and decoded as such.
+ *
+ * @param <T> the type of the values
+ */
+public final class TryCodec<T> {
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+
+    private final ValueCodec<T> valueCodec;
+    private final int maxFrames;
+    private final int maxCauses;
+
+    /**
+     * Constructs a codec writing at most 32 stack frames per {@code Throwable} and 8 causes.
+     *
+     * @param valueCodec the codec of the values of {@code Success}
+     * @throws NullPointerException if the value codec is {@code null}
+     */
+    public TryCodec(ValueCodec<T> valueCodec) {
+        this(valueCodec, 32, 8);
+    }
+
+    /**
+     * Constructs a codec.
+     *
+     * @param valueCodec the codec of the values of {@code Success}
+     * @param maxFrames the maximum number of stack frames written per {@code Throwable}, 0 to write none
+     * @param maxCauses the maximum number of causes written per {@code Throwable}, 0 to write none
+     * @throws NullPointerException if the value codec is {@code null}
+     * @throws IllegalArgumentException if a maximum is negative
+     */
+    public TryCodec(ValueCodec<T> valueCodec, int maxFrames, int maxCauses) {
+        if (maxFrames < 0 || maxCauses < 0) throw new IllegalArgumentException("Negative maximum");
+        this.valueCodec = Objects.requireNonNull(valueCodec);
+        this.maxFrames = maxFrames;
+        this.maxCauses = maxCauses;
+    }
+
+    /**
+     * Writes a {@code Try} at the current position of the buffer, and advances it.
+     *
+     * @param t the {@code Try} to write
+     * @param buffer the buffer
+     * @throws BufferOverflowException if the buffer is too small, its position is then undefined
+     * @throws NullPointerException if the {@code Try} or the buffer is {@code null}
+     */
+    public void encode(Try<? extends T> t, ByteBuffer buffer) {
+        Objects.requireNonNull(t);
+        Objects.requireNonNull(buffer);
+        if (t.isSuccess()) {
+            buffer.put(SUCCESS);
+            this.valueCodec.write(t.get(), buffer);
+        } else {
+            buffer.put(FAILURE);
+            new Encoder(buffer).throwable(t.getThrowable());
+        }
+    }
+
+    /**
+     * Reads a {@code Try} at the current position of the buffer, and advances it.
+     *
+     * @param buffer the buffer
+     * @return the read {@code Try}
+     * @throws BufferUnderflowException if the buffer does not contain a whole {@code Try}
+     * @throws IllegalArgumentException if the buffer does not contain an encoded {@code Try}
+     * @throws NullPointerException if the buffer is {@code null}
+     */
+    public Try<T> decode(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        if (tag == SUCCESS) return new Success<>(this.valueCodec.read(buffer));
+        if (tag == FAILURE) return new Failure<>(new Decoder(buffer).throwable());
+        throw new IllegalArgumentException("Not an encoded Try: " + tag);
+    }
+
+    /**
+     * Writes and reads the values of {@code Success}.
+     *
+     * @param <T> the type of the values
+     */
+    public interface ValueCodec<T> {
+
+        /**
+         * Writes a value at the current position of the buffer, and advances it.
+         *
+         * @param value the value
+         * @param buffer the buffer
+         */
+        void write(T value, ByteBuffer buffer);
+
+        /**
+         * Reads a value at the current position of the buffer, and advances it.
+         *
+         * @param buffer the buffer
+         * @return the value
+         */
+        T read(ByteBuffer buffer);
+
+        /**
+         * Returns a codec writing the length of the bytes of a value followed by these bytes.
+         *
+         * @param encoder the function turning a value into bytes
+         * @param decoder the function turning bytes into a value
+         * @param <T> the type of the values
+         * @return a new {@code ValueCodec}
+         * @throws NullPointerException if the encoder or the decoder is {@code null}
+         */
+        static <T> ValueCodec<T> ofBytes(TryFunction<? super T, byte[]> encoder, TryFunction<byte[], ? extends T> decoder) {
+            Objects.requireNonNull(encoder);
+            Objects.requireNonNull(decoder);
+            return new ValueCodec<>() {
+                @Override
+                public void write(T value, ByteBuffer buffer) {
+                    byte[] bytes;
+                    try {
+                        bytes = encoder.apply(value);
+                    } catch (Throwable throwable) {
+                        throw new IllegalArgumentException("Cannot encode value", throwable);
+                    }
+                    buffer.putInt(bytes.length).put(bytes);
+                }
+
+                @Override
+                public T read(ByteBuffer buffer) {
+                    int length = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("Invalid size: " + length);
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    try {
+                        return decoder.apply(bytes);
+                    } catch (Throwable throwable) {
+                        throw new IllegalArgumentException("Cannot decode value", throwable);
+                    }
+                }
+            };
+        }
+
+    }
+
+    private final class Encoder {
+
+        private final ByteBuffer buffer;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Encoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void throwable(Throwable throwable) {
+            List<Throwable> chain = new ArrayList<>();
+            for (Throwable t = throwable; t != null && chain.size() <= maxCauses && !chain.contains(t); t = t.getCause()) {
+                chain.add(t);
+            }
+            putVarint(chain.size());
+            StackTraceElement[] enclosing = null;
+            boolean enclosingComplete = false;
+            for (Throwable t : chain) {
+                string(t instanceof RecordedThrowable recorded ? recorded.className() : t.getClass().getName());
+                string(t.getMessage());
+                StackTraceElement[] trace = t.getStackTrace();
+                int common = enclosing != null ? common(trace, enclosing) : 0;
+                int unique = trace.length - common;
+                int written = Math.min(unique, maxFrames);
+                putVarint(written);
+                for (int i = 0; i < written; i++) {
+                    frame(trace[i]);
+                }
+                boolean inherits = written == unique && enclosingComplete;
+                putVarint(inherits ? common : 0);
+                enclosingComplete = written == unique && (common == 0 || inherits);
+                enclosing = trace;
+            }
+        }
+
+        private int common(StackTraceElement[] trace, StackTraceElement[] enclosing) {
+            int m = trace.length - 1;
+            int n = enclosing.length - 1;
+            while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+                m--;
+                n--;
+            }
+            return trace.length - 1 - m;
+        }
+
+        private void frame(StackTraceElement frame) {
+            string(frame.getClassLoaderName());
+            string(frame.getModuleName());
+            string(frame.getModuleVersion());
+            string(frame.getClassName());
+            string(frame.getMethodName());
+            string(frame.getFileName());
+            int line = frame.getLineNumber();
+            putVarint((line << 1) ^ (line >> 31));
+        }
+
+        /*
+         * 0 for null, 1 followed by the bytes of a new string,
+         * or the index of an already written string plus 2.
+         */
+        private void string(String string) {
+            if (string == null) {
+                putVarint(0);
+                return;
+            }
+            Integer index = this.strings.get(string);
+            if (index != null) {
+                putVarint(index + 2);
+                return;
+            }
+            this.strings.put(string, this.strings.size());
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            putVarint(1);
+            putVarint(bytes.length);
+            this.buffer.put(bytes);
+        }
+
+        private void putVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                this.buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            this.buffer.put((byte) value);
+        }
+
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final List<String> strings = new ArrayList<>();
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private Throwable throwable() {
+            int size = count();
+            if (size == 0) return null;
+            RecordedThrowable first = null;
+            RecordedThrowable last = null;
+            StackTraceElement[] enclosing = new StackTraceElement[0];
+            for (int i = 0; i < size; i++) {
+                String className = string();
+                if (className == null) throw new IllegalArgumentException("Missing class name");
+                RecordedThrowable throwable = new RecordedThrowable(className, string());
+                StackTraceElement[] trace = new StackTraceElement[count()];
+                for (int j = 0; j < trace.length; j++) {
+                    trace[j] = frame();
+                }
+                int inherited = getVarint();
+                if (inherited > enclosing.length) throw new IllegalArgumentException("Invalid stack trace");
+                if (inherited > 0) {
+                    int written = trace.length;
+                    trace = Arrays.copyOf(trace, written + inherited);
+                    System.arraycopy(enclosing, enclosing.length - inherited, trace, written, inherited);
+                }
+                throwable.setStackTrace(trace);
+                if (first == null) first = throwable;
+                else last.initCause(throwable);
+                last = throwable;
+                enclosing = trace;
+            }
+            return first;
+        }
+
+        private StackTraceElement frame() {
+            String classLoaderName = string();
+            String moduleName = string();
+            String moduleVersion = string();
+            String className = string();
+            String methodName = string();
+            String fileName = string();
+            int line = getVarint();
+            return new StackTraceElement(classLoaderName, moduleName, moduleVersion,
+                    className, methodName, fileName, (line >>> 1) ^ -(line & 1));
+        }
+
+        private String string() {
+            int tag = getVarint();
+            if (tag == 0) return null;
+            if (tag > 1) {
+                if (tag - 2 >= this.strings.size()) throw new IllegalArgumentException("Invalid string reference");
+                return this.strings.get(tag - 2);
+            }
+            byte[] bytes = new byte[count()];
+            this.buffer.get(bytes);
+            String string = new String(bytes, StandardCharsets.UTF_8);
+            this.strings.add(string);
+            return string;
+        }
+
+        /**
+         * Reads the number of elements of an array, each element taking at least one of the remaining bytes.
+         */
+        private int count() {
+            int count = getVarint();
+            if (count < 0 || count > this.buffer.remaining()) throw new IllegalArgumentException("Invalid size: " + count);
+            return count;
+        }
+
+        private int getVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = this.buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+    }
+
+}
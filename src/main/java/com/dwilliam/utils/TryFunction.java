@@ -1,5 +1,7 @@
 package com.dwilliam.utils;
 
+import java.util.function.Function;
+
 @FunctionalInterface
 public interface TryFunction <T, R> {
 
@@ -11,4 +13,20 @@ public interface TryFunction <T, R> {
      */
     R apply(T t) throws Throwable;
 
+    /**
+     * Returns this function as a {@code Function}, throwing the throwables of this function as is,
+     * checked exceptions included, without wrapping them.
+     *
+     * @return a {@code Function} calling this function
+     */
+    default Function<T, R> asFunction() {
+        return t -> {
+            try {
+                return apply(t);
+            } catch (Throwable throwable) {
+                throw Sneaky.rethrow(throwable);
+            }
+        };
+    }
+
 }
@@ -0,0 +1,352 @@
+package com.dwilliam.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A bounded pool of expensive resources, such as parsers, compressors or connections,
+ * used through a bracket: acquire a resource, apply a {@code TryFunction} to it, and always release it.
+ * <p>
+ * Resources are created by the factory on demand, up to the maximum size. A resource whose function threw a
+ * throwable of one of the invalidating classes is destroyed instead of being released, and a new one is created
+ * when needed. Acquiring a resource waits at most the acquire timeout, then fails with a {@code TimeoutException}.
+ * <p>
+ * Idle resources are kept on a lock-free stack. Each thread first tries the last resource it released,
+ * with a single compare-and-set, so a thread using the pool repeatedly tends to reuse the same resource.
+ * The waiting for a resource is bounded by a {@code Semaphore} counting the idle and creatable resources.
+ *
+ * <pre>{@code
+ * TryPool<MessageDigest> digests = TryPool.<MessageDigest>builder(() -> MessageDigest.getInstance("SHA-256"))
+ *         .maxSize(8)
+ *         .build();
+ * Try<byte[]> hash = digests.use(digest -> digest.digest(bytes));
+ * }</pre>
+ *
+ * @param <R> the type of the resources
+ */
+public final class TryPool<R> implements AutoCloseable {
+
+    private static final int IDLE = 0;
+    private static final int USED = 1;
+    private static final int DESTROYED = 2;
+
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(TryPool.class, "head", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final TrySupplier<? extends R> factory;
+    private final int maxSize;
+    private final List<Class<? extends Throwable>> invalidating;
+    private final Consumer<? super R> destroyer;
+    private final long acquireTimeoutNanos;
+    // the permits of the idle resources, and of the resources which can still be created
+    private final Semaphore available;
+    private final AtomicInteger size = new AtomicInteger();
+    // weak, so the slots destroyed meanwhile are not kept reachable by the threads which released them
+    private final ThreadLocal<WeakReference<Slot<R>>> lastReleased = new ThreadLocal<>();
+    private final List<Slot<R>> slots = new ArrayList<>();
+    private volatile Node<R> head;
+    private volatile boolean closed;
+
+    private TryPool(Builder<R> builder) {
+        this.factory = builder.factory;
+        this.maxSize = builder.maxSize;
+        this.invalidating = List.copyOf(builder.invalidating);
+        this.destroyer = builder.destroyer;
+        this.acquireTimeoutNanos = builder.acquireTimeout.toNanos();
+        this.available = new Semaphore(builder.maxSize);
+    }
+
+    /**
+     * Applies a function to a resource of this pool, then releases the resource,
+     * or destroys it if the function threw a throwable of an invalidating class.
+     *
+     * @param function the function to apply to the resource
+     * @param <U> the type of the result of the function
+     * @return a {@code Success} containing the result of the function, or a {@code Failure} containing the throwable
+     *         thrown by the function, a {@code TimeoutException} if no resource was acquired in time,
+     *         the throwable thrown by the factory, an {@code InterruptedException} if the current thread was
+     *         interrupted while waiting, or an {@code IllegalStateException} if the pool is closed
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public <U> Try<U> use(TryFunction<? super R, ? extends U> function) {
+        Objects.requireNonNull(function);
+        Try<Slot<R>> acquired = acquire();
+        if (acquired.isFailure()) return new Failure<>(acquired.getThrowable());
+        Slot<R> slot = acquired.get();
+        Try<U> result = Try.newTry(() -> function.apply(slot.resource));
+        if (result.isFailure() && invalidates(result.getThrowable())) destroy(slot);
+        else release(slot);
+        return result;
+    }
+
+    /**
+     * Returns the number of resources of this pool, idle or in use.
+     *
+     * @return a number of resources
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Closes this pool: the idle resources are destroyed, and the resources in use are destroyed once released.
+     * Later uses fail with an {@code IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        List<Slot<R>> slots;
+        synchronized (this.slots) {
+            slots = new ArrayList<>(this.slots);
+        }
+        for (Slot<R> slot : slots) {
+            if (slot.state.compareAndSet(IDLE, USED)) destroy(slot);
+        }
+    }
+
+    private Try<Slot<R>> acquire() {
+        if (this.closed) return new Failure<>(new IllegalStateException("Pool closed"));
+        try {
+            if (!this.available.tryAcquire(this.acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return new Failure<>(new TimeoutException("No resource available in " + Duration.ofNanos(this.acquireTimeoutNanos)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Failure<>(e);
+        }
+        // the permit guarantees an idle resource or room for a new one, possibly after a concurrent release
+        for (;;) {
+            // a pool closed while waiting for the permit does not create resources anymore
+            if (this.closed) {
+                this.available.release();
+                return new Failure<>(new IllegalStateException("Pool closed"));
+            }
+            WeakReference<Slot<R>> last = this.lastReleased.get();
+            Slot<R> slot = last == null ? null : last.get();
+            if (slot != null && slot.state.compareAndSet(IDLE, USED)) return new Success<>(slot);
+            slot = pop();
+            if (slot != null) return new Success<>(slot);
+            int size = this.size.get();
+            if (size < this.maxSize && this.size.compareAndSet(size, size + 1)) return create();
+            Thread.onSpinWait();
+        }
+    }
+
+    private Try<Slot<R>> create() {
+        Try<? extends R> resource = Try.newTry(this.factory);
+        if (resource.isFailure()) {
+            this.size.decrementAndGet();
+            this.available.release();
+            return new Failure<>(resource.getThrowable());
+        }
+        Slot<R> slot = new Slot<>(resource.get());
+        synchronized (this.slots) {
+            this.slots.add(slot);
+        }
+        return new Success<>(slot);
+    }
+
+    private void release(Slot<R> slot) {
+        if (this.closed) {
+            destroy(slot);
+            return;
+        }
+        this.lastReleased.set(slot.reference);
+        slot.state.set(IDLE);
+        if (slot.queued.compareAndSet(false, true)) push(slot);
+        this.available.release();
+        // a close racing with this release may have missed the slot
+        if (this.closed && slot.state.compareAndSet(IDLE, USED)) destroy(slot);
+    }
+
+    private void destroy(Slot<R> slot) {
+        slot.state.set(DESTROYED);
+        synchronized (this.slots) {
+            this.slots.remove(slot);
+        }
+        R resource = slot.resource;
+        // the stack may still hold the slot until its next pop
+        slot.resource = null;
+        try {
+            this.destroyer.accept(resource);
+        } catch (Throwable throwable) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+        } finally {
+            this.size.decrementAndGet();
+            this.available.release();
+        }
+    }
+
+    private boolean invalidates(Throwable throwable) {
+        for (Class<? extends Throwable> type : this.invalidating) {
+            if (type.isInstance(throwable)) return true;
+        }
+        return false;
+    }
+
+    private void push(Slot<R> slot) {
+        Node<R> node = new Node<>(slot);
+        Node<R> h;
+        do {
+            h = this.head;
+            node.next = h;
+        } while (!HEAD.compareAndSet(this, h, node));
+    }
+
+    /**
+     * Pops slots until one is claimed, the stack may hold slots claimed through the thread affinity path.
+     */
+    private Slot<R> pop() {
+        for (;;) {
+            Node<R> h = this.head;
+            if (h == null) return null;
+            if (!HEAD.compareAndSet(this, h, h.next)) continue;
+            Slot<R> slot = h.slot;
+            slot.queued.set(false);
+            if (slot.state.compareAndSet(IDLE, USED)) return slot;
+        }
+    }
+
+    /**
+     * Returns a new builder of {@code TryPool}.
+     *
+     * @param factory the factory of the resources
+     * @param <R> the type of the resources
+     * @return a new builder
+     * @throws NullPointerException if the factory is {@code null}
+     */
+    public static <R> Builder<R> builder(TrySupplier<? extends R> factory) {
+        return new Builder<>(Objects.requireNonNull(factory));
+    }
+
+    private static final class Slot<R> {
+
+        private R resource;
+        private final WeakReference<Slot<R>> reference = new WeakReference<>(this);
+        private final AtomicInteger state = new AtomicInteger(USED);
+        // true while the slot is on the stack, so it's pushed once
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private Slot(R resource) {
+            this.resource = resource;
+        }
+
+    }
+
+    private static final class Node<R> {
+
+        private final Slot<R> slot;
+        private Node<R> next;
+
+        private Node(Slot<R> slot) {
+            this.slot = slot;
+        }
+
+    }
+
+    public static final class Builder<R> {
+
+        private final TrySupplier<? extends R> factory;
+        private int maxSize = Runtime.getRuntime().availableProcessors();
+        private final List<Class<? extends Throwable>> invalidating = new ArrayList<>();
+        private Consumer<? super R> destroyer = TryPool::closeQuietly;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        private Builder(TrySupplier<? extends R> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Sets the maximum number of resources, the number of available processors by default.
+         *
+         * @param maxSize a positive number of resources
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum size is not positive
+         */
+        public Builder<R> maxSize(int maxSize) {
+            if (maxSize <= 0) throw new IllegalArgumentException("Non positive size: " + maxSize);
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Adds a class of throwables invalidating the resource on which they were thrown.
+         *
+         * @param type the throwable class, its subclasses invalidate too
+         * @return this builder
+         * @throws NullPointerException if the throwable class is {@code null}
+         */
+        public Builder<R> invalidateOn(Class<? extends Throwable> type) {
+            this.invalidating.add(Objects.requireNonNull(type));
+            return this;
+        }
+
+        /**
+         * Sets the consumer destroying invalidated resources, and idle resources when the pool is closed.
+         * By default, resources implementing {@code AutoCloseable} are closed.
+         * A throwable thrown by the destroyer is given to the uncaught exception handler of the current thread.
+         *
+         * @param destroyer the consumer destroying the resources
+         * @return this builder
+         * @throws NullPointerException if the destroyer is {@code null}
+         */
+        public Builder<R> destroyer(Consumer<? super R> destroyer) {
+            this.destroyer = Objects.requireNonNull(destroyer);
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for a resource, 30 seconds by default.
+         *
+         * @param acquireTimeout the maximum time to wait
+         * @return this builder
+         * @throws NullPointerException if the timeout is {@code null}
+         * @throws IllegalArgumentException if the timeout is negative
+         */
+        public Builder<R> acquireTimeout(Duration acquireTimeout) {
+            if (acquireTimeout.isNegative()) throw new IllegalArgumentException("Negative timeout: " + acquireTimeout);
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        /**
+         * Builds the {@code TryPool}.
+         *
+         * @return a new {@code TryPool}
+         */
+        public TryPool<R> build() {
+            return new TryPool<>(this);
+        }
+
+    }
+
+    private static void closeQuietly(Object resource) {
+        if (resource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // the resource is discarded anyway
+            }
+        }
+    }
+
+}
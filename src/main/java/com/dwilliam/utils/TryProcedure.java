@@ -11,6 +11,22 @@ public interface TryProcedure extends TrySupplier<Void> {
 
     void run() throws Throwable;
 
+    /**
+     * Returns this procedure as a {@code Runnable}, throwing the throwables of this procedure as is,
+     * checked exceptions included, without wrapping them.
+     *
+     * @return a {@code Runnable} calling this procedure
+     */
+    default Runnable asRunnable() {
+        return () -> {
+            try {
+                run();
+            } catch (Throwable throwable) {
+                throw Sneaky.rethrow(throwable);
+            }
+        };
+    }
+
     default TryProcedure then(TryProcedure after){
         return () -> {
             this.run();
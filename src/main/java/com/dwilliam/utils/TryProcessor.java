@@ -0,0 +1,58 @@
+package com.dwilliam.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@code Flow.Processor} applying a {@code TryFunction} to each upstream item
+ * and publishing its outcome, {@code Success} or {@code Failure}, downstream.
+ * <p>
+ * At most {@code concurrency} items are processed at once, and requested upstream only as long as
+ * every subscriber buffer, of {@code bufferCapacity} outcomes, has room for them.
+ * With a concurrency greater than 1, outcomes may be published out of the upstream order.
+ * The subscribers are completed, or given the upstream error, once every requested item is processed.
+ * Nothing is requested upstream before the first subscriber, and the upstream subscription is cancelled
+ * once this processor is closed or has no subscriber left.
+ *
+ * @param <T> the type of the upstream items
+ * @param <R> the type of the values of the outcomes
+ */
+public final class TryProcessor<T, R> extends AbstractTryProcessor<T, R, Try<R>> {
+
+    /**
+     * Constructs a processor applying the function on the common pool, one item at a time.
+     *
+     * @param mapper the function to apply to each item
+     * @throws NullPointerException if the function is {@code null}
+     */
+    public TryProcessor(TryFunction<? super T, ? extends R> mapper) {
+        this(mapper, ForkJoinPool.commonPool(), 1, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Constructs a processor.
+     *
+     * @param mapper the function to apply to each item
+     * @param executor the executor applying the function
+     * @param concurrency the maximum number of items processed at once
+     * @param bufferCapacity the maximum number of outcomes buffered per subscriber
+     * @throws NullPointerException if the function or the executor is {@code null}
+     * @throws IllegalArgumentException if the concurrency or the buffer capacity is not positive
+     */
+    public TryProcessor(TryFunction<? super T, ? extends R> mapper, Executor executor, int concurrency, int bufferCapacity) {
+        super(mapper, executor, concurrency, bufferCapacity);
+    }
+
+    @Override
+    void emit(Try<R> outcome) {
+        submit(outcome);
+    }
+
+    @Override
+    void finish(Throwable error) {
+        if (error != null) closeExceptionally(error);
+        else close();
+    }
+
+}
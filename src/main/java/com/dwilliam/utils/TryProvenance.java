@@ -0,0 +1,156 @@
+package com.dwilliam.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the call site of the {@code Try} combinator, such as {@code Try.newTry} or {@code Try.flatMap},
+ * which caught a throwable and made a {@code Failure} of it.
+ * <p>
+ * The stack trace of a throwable thrown by a lambda shows where it was thrown, but not which stage of a pipeline
+ * ran the lambda. When a caught throwable is sampled, the first frames calling the combinator are captured with a
+ * {@code StackWalker}, and attached to the throwable as a suppressed {@link Marker}, shown by
+ * {@code printStackTrace} and read by {@link #of(Throwable)}. A throwable gets at most one marker.
+ * <p>
+ * A throwable caught again once marked, such as a shared constant or a throwable rethrown through another combinator,
+ * has an ambiguous call site: its marker is kept, but {@code of} no longer reports it.
+ * A throwable whose suppression is disabled is never marked.
+ * <p>
+ * Capture is disabled by default. Disabled, it costs a volatile read per caught throwable;
+ * enabled, the sampling rate bounds the cost of the stack walks.
+ * The sampling rate and the maximum number of frames are global to the JVM, as the combinators have no context to
+ * read them from: they are meant to be set by the application, such as at startup or from a diagnostic endpoint,
+ * not by the libraries it uses.
+ */
+public final class TryProvenance {
+
+    private static final Set<String> COMBINATORS = Set.of(
+            TryProvenance.class.getName(), Try.class.getName(), Success.class.getName(), Failure.class.getName());
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static volatile double samplingRate;
+    private static volatile int maxFrames = 4;
+
+    private TryProvenance() {}
+
+    /**
+     * Returns the probability to capture the call site of a caught throwable.
+     *
+     * @return a rate between {@code 0} and {@code 1}
+     */
+    public static double samplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * Sets the probability to capture the call site of a caught throwable, {@code 0} by default.
+     *
+     * @param rate a rate between {@code 0}, to disable the capture, and {@code 1}, to capture every call site
+     * @throws IllegalArgumentException if the rate is not between {@code 0} and {@code 1}
+     */
+    public static void setSamplingRate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) throw new IllegalArgumentException("Invalid rate: " + rate);
+        samplingRate = rate;
+    }
+
+    /**
+     * Returns the maximum number of captured frames.
+     *
+     * @return a positive number of frames
+     */
+    public static int maxFrames() {
+        return maxFrames;
+    }
+
+    /**
+     * Sets the maximum number of captured frames, {@code 4} by default.
+     *
+     * @param frames a positive number of frames
+     * @throws IllegalArgumentException if the number of frames is not positive
+     */
+    public static void setMaxFrames(int frames) {
+        if (frames <= 0) throw new IllegalArgumentException("Non positive frames: " + frames);
+        maxFrames = frames;
+    }
+
+    /**
+     * Returns the call site captured for the given throwable, if it was sampled.
+     *
+     * @param throwable the throwable
+     * @return the captured frames, innermost first, or an empty {@code Optional}
+     * @throws NullPointerException if the throwable is {@code null}
+     */
+    public static Optional<List<StackTraceElement>> of(Throwable throwable) {
+        Marker marker = marker(throwable);
+        if (marker == null || marker.shared) return Optional.empty();
+        return Optional.of(Arrays.asList(marker.getStackTrace()));
+    }
+
+    /**
+     * Attaches the call site of the calling combinator to the given throwable, if it is sampled.
+     *
+     * @return the given throwable
+     */
+    static Throwable attach(Throwable throwable) {
+        double rate = samplingRate;
+        if (rate <= 0) return throwable;
+        // the suppressed throwables are guarded by the throwable itself
+        synchronized (throwable) {
+            Marker marker = marker(throwable);
+            if (marker != null) {
+                // caught again, sampled or not, the recorded call site may not be the one of this failure
+                marker.shared = true;
+                return throwable;
+            }
+            if (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) return throwable;
+            marker = new Marker();
+            throwable.addSuppressed(marker);
+            // suppression disabled, the marker was dropped, skip the stack walk
+            if (marker(throwable) != marker) return throwable;
+            int frames = maxFrames;
+            marker.setStackTrace(WALKER.walk(stream -> stream
+                    .dropWhile(frame -> COMBINATORS.contains(frame.getClassName()))
+                    .limit(frames)
+                    .map(StackWalker.StackFrame::toStackTraceElement)
+                    .toArray(StackTraceElement[]::new)));
+        }
+        return throwable;
+    }
+
+    private static Marker marker(Throwable throwable) {
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            if (suppressed instanceof Marker marker) return marker;
+        }
+        return null;
+    }
+
+    /**
+     * The suppressed marker holding the captured call site as stack trace.
+     */
+    public static final class Marker extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private volatile boolean shared;
+
+        private Marker() {
+            super("Failure made at", null, false, true);
+        }
+
+        @Override
+        public String getMessage() {
+            return this.shared ? "Failure first made at, then caught again" : super.getMessage();
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+}
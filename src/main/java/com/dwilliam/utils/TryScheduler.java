@@ -0,0 +1,334 @@
+package com.dwilliam.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code TryProcedure} jobs periodically, such as cache refreshes or health probes.
+ * <p>
+ * A single timer thread triggers the executions, and each execution runs in its own thread from the thread factory,
+ * such as a virtual thread factory, so a running job does not hold a pooled thread.
+ * An execution triggered while the previous one of the same job is still running is skipped.
+ * <p>
+ * After consecutive failures, a job backs off: the time before its next execution is doubled on each failure,
+ * up to the maximum backoff, and reset by its next success.
+ * Each job exposes the statistics of its executions, including its last result.
+ *
+ * <pre>{@code
+ * try (TryScheduler scheduler = new TryScheduler()) {
+ *     TryScheduler.Job refresh = scheduler.scheduleAtFixedRate(cache::refresh, Duration.ZERO, Duration.ofMinutes(1));
+ *     ...
+ *     Optional<Try<Void>> last = refresh.statistics().lastResult();
+ * }
+ * }</pre>
+ */
+public final class TryScheduler implements AutoCloseable {
+
+    private final ThreadFactory threadFactory;
+    private final long maxBackoffNanos;
+    private final ScheduledExecutorService timer;
+    private final List<Job> jobs = new ArrayList<>();
+
+    /**
+     * Constructs a scheduler running each execution in a new daemon platform thread, with a maximum backoff of 5 minutes.
+     */
+    public TryScheduler() {
+        this(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        }, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Constructs a scheduler.
+     *
+     * @param threadFactory the factory of the threads running the executions, such as a virtual thread factory
+     * @param maxBackoff the maximum time between two executions of a failing job,
+     *        a job never runs less often than its period though
+     * @throws NullPointerException if the thread factory or the maximum backoff is {@code null}
+     * @throws IllegalArgumentException if the maximum backoff is negative
+     */
+    public TryScheduler(ThreadFactory threadFactory, Duration maxBackoff) {
+        if (maxBackoff.isNegative()) throw new IllegalArgumentException("Negative backoff: " + maxBackoff);
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "try-scheduler-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a cancelled job is not kept by the timer queue until its next trigger
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
+    }
+
+    /**
+     * Schedules a job running every period, whatever the duration of its executions.
+     *
+     * @param task the job
+     * @param initialDelay the time before the first execution
+     * @param period the time between the starts of two executions
+     * @return the scheduled job
+     * @throws NullPointerException if an argument is {@code null}
+     * @throws IllegalArgumentException if the initial delay is negative or the period is not positive
+     * @throws RejectedExecutionException if the scheduler is closed
+     */
+    public Job scheduleAtFixedRate(TryProcedure task, Duration initialDelay, Duration period) {
+        Job job = job(task, initialDelay, period, true);
+        // the first trigger waits for the future to be set
+        synchronized (job.lock) {
+            job.future = this.timer.scheduleAtFixedRate(job::trigger, initialDelay.toNanos(), job.periodNanos, TimeUnit.NANOSECONDS);
+        }
+        return job;
+    }
+
+    /**
+     * Schedules a job running a delay after the end of each of its executions.
+     *
+     * @param task the job
+     * @param initialDelay the time before the first execution
+     * @param delay the time between the end of an execution and the start of the next one
+     * @return the scheduled job
+     * @throws NullPointerException if an argument is {@code null}
+     * @throws IllegalArgumentException if the initial delay is negative or the delay is not positive
+     * @throws RejectedExecutionException if the scheduler is closed
+     */
+    public Job scheduleWithFixedDelay(TryProcedure task, Duration initialDelay, Duration delay) {
+        Job job = job(task, initialDelay, delay, false);
+        synchronized (job.lock) {
+            job.future = this.timer.schedule(job::trigger, initialDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return job;
+    }
+
+    /**
+     * Cancels every job, and waits for their running executions to end.
+     * If the current thread is interrupted while waiting, it keeps waiting, and its interrupt status is restored.
+     */
+    @Override
+    public void close() {
+        this.timer.shutdownNow();
+        List<Job> jobs;
+        synchronized (this.jobs) {
+            jobs = new ArrayList<>(this.jobs);
+        }
+        boolean interrupted = false;
+        for (Job job : jobs) {
+            job.cancel();
+            Thread thread;
+            synchronized (job.lock) {
+                thread = job.runner;
+            }
+            while (thread != null && thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private Job job(TryProcedure task, Duration initialDelay, Duration period, boolean fixedRate) {
+        Objects.requireNonNull(task);
+        if (initialDelay.isNegative()) throw new IllegalArgumentException("Negative initial delay: " + initialDelay);
+        if (period.isNegative() || period.isZero()) throw new IllegalArgumentException("Non positive period: " + period);
+        Job job = new Job(task, period.toNanos(), fixedRate);
+        synchronized (this.jobs) {
+            this.jobs.add(job);
+        }
+        return job;
+    }
+
+    /**
+     * A job scheduled by a {@code TryScheduler}.
+     */
+    public final class Job {
+
+        private final TryProcedure task;
+        private final long periodNanos;
+        private final boolean fixedRate;
+        private final Object lock = new Object();
+        // guarded by the lock
+        private ScheduledFuture<?> future;
+        private boolean cancelled;
+        private Thread runner;
+        private long notBefore;
+        private long runs;
+        private long failures;
+        private long skipped;
+        private int consecutiveFailures;
+        private Try<Void> lastResult;
+        private long lastDurationNanos;
+        private long totalDurationNanos;
+
+        private Job(TryProcedure task, long periodNanos, boolean fixedRate) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.fixedRate = fixedRate;
+        }
+
+        /**
+         * Cancels the next executions of this job. A running execution is not interrupted.
+         */
+        public void cancel() {
+            boolean running;
+            synchronized (this.lock) {
+                this.cancelled = true;
+                if (this.future != null) this.future.cancel(false);
+                running = this.runner != null;
+            }
+            // a running job is removed once its execution ends, so closing the scheduler still waits for it
+            if (!running) remove();
+        }
+
+        /**
+         * Returns {@code true} if this job is cancelled.
+         *
+         * @return {@code true} if this job is cancelled, {@code false} otherwise
+         */
+        public boolean isCancelled() {
+            synchronized (this.lock) {
+                return this.cancelled;
+            }
+        }
+
+        /**
+         * Returns the statistics of the executions of this job so far.
+         *
+         * @return a snapshot of the statistics
+         */
+        public Statistics statistics() {
+            synchronized (this.lock) {
+                return new Statistics(this.runs, this.failures, this.skipped, this.consecutiveFailures,
+                        this.lastResult, Duration.ofNanos(this.lastDurationNanos), Duration.ofNanos(this.totalDurationNanos));
+            }
+        }
+
+        /**
+         * Starts an execution, from the timer thread.
+         */
+        private void trigger() {
+            Thread thread;
+            synchronized (this.lock) {
+                if (this.cancelled) return;
+                if (this.runner != null) {
+                    this.skipped++;
+                    return;
+                }
+                // a fixed rate job backing off ignores the triggers until the end of its backoff
+                if (this.fixedRate && System.nanoTime() - this.notBefore < 0) return;
+                thread = TryScheduler.this.threadFactory.newThread(this::run);
+                if (thread == null) {
+                    complete(new Failure<>(new RejectedExecutionException("Thread factory returned null")), 0L);
+                    return;
+                }
+                this.runner = thread;
+            }
+            try {
+                thread.start();
+            } catch (Throwable throwable) {
+                end(new Failure<>(throwable), 0L);
+            }
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            Try<Void> result = Try.newTry(this.task);
+            end(result, System.nanoTime() - start);
+        }
+
+        private void end(Try<Void> result, long duration) {
+            boolean cancelled;
+            synchronized (this.lock) {
+                complete(result, duration);
+                cancelled = this.cancelled;
+            }
+            if (cancelled) remove();
+        }
+
+        private void remove() {
+            synchronized (TryScheduler.this.jobs) {
+                TryScheduler.this.jobs.remove(this);
+            }
+        }
+
+        // called while holding the lock
+        private void complete(Try<Void> result, long duration) {
+            this.runner = null;
+            this.runs++;
+            this.lastResult = result;
+            this.lastDurationNanos = duration;
+            this.totalDurationNanos += duration;
+            if (result.isFailure()) {
+                this.failures++;
+                this.consecutiveFailures++;
+            } else {
+                this.consecutiveFailures = 0;
+            }
+            long wait = this.consecutiveFailures == 0 ? this.periodNanos : backoff();
+            this.notBefore = System.nanoTime() + wait - this.periodNanos;
+            if (!this.fixedRate && !this.cancelled) {
+                try {
+                    this.future = TryScheduler.this.timer.schedule(this::trigger, wait, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the scheduler is closed
+                    this.cancelled = true;
+                }
+            }
+        }
+
+        private long backoff() {
+            int shift = Math.min(this.consecutiveFailures, 62);
+            long backoff = this.periodNanos > Long.MAX_VALUE >> shift ? Long.MAX_VALUE : this.periodNanos << shift;
+            return Math.max(this.periodNanos, Math.min(backoff, TryScheduler.this.maxBackoffNanos));
+        }
+
+    }
+
+    /**
+     * The statistics of a {@code Job}.
+     *
+     * @param runs the number of completed executions
+     * @param failures the number of failed executions
+     * @param skipped the number of executions skipped because the previous one was still running
+     * @param consecutiveFailures the number of failed executions since the last successful one
+     * @param last the result of the last execution, {@code null} before the first one
+     * @param lastDuration the duration of the last execution
+     * @param totalDuration the duration of every execution
+     */
+    public record Statistics(long runs, long failures, long skipped, int consecutiveFailures,
+                             Try<Void> last, Duration lastDuration, Duration totalDuration) {
+
+        /**
+         * Returns the result of the last execution.
+         *
+         * @return an {@code Optional} containing the result of the last execution, empty before the first one
+         */
+        public Optional<Try<Void>> lastResult() {
+            return Optional.ofNullable(this.last);
+        }
+
+        /**
+         * Returns the average duration of the executions.
+         *
+         * @return the average duration, zero if no execution completed
+         */
+        public Duration averageDuration() {
+            return this.runs == 0 ? Duration.ZERO : this.totalDuration.dividedBy(this.runs);
+        }
+
+    }
+
+}
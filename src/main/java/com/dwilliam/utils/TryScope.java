@@ -0,0 +1,263 @@
+package com.dwilliam.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A scope forking {@code TrySupplier} and {@code TryProcedure} tasks in their own threads,
+ * and joining their outcomes into a single {@code Try}.
+ * <p>
+ * With the shutdown on failure policy, the first failing task shuts the scope down: the other tasks are
+ * cancelled, and the joined {@code Try} is a {@code Failure} containing the throwable of the failing task.
+ * With the collect all policy, every task runs to completion, and the joined {@code Try} is a {@code Failure}
+ * containing an {@link AccumulatedException} of every failure, if any.
+ * <p>
+ * Cancelling a task interrupts its thread, and completes its fork with a {@code CancellationException}.
+ * Closing the scope cancels the remaining tasks and waits for every thread of the scope to terminate,
+ * so no task outlives the scope. The scope is meant to be used by a single owner thread,
+ * in a try-with-resources statement.
+ *
+ * <pre>{@code
+ * try (TryScope<Object> scope = TryScope.shutdownOnFailure()) {
+ *     TryScope.Fork<User> user = scope.fork(() -> users.find(id));
+ *     TryScope.Fork<List<Order>> orders = scope.fork(() -> orders.find(id));
+ *     Try<List<Object>> joined = scope.join();
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of the values of the tasks
+ */
+public final class TryScope<T> implements AutoCloseable {
+
+    private final boolean shutdownOnFailure;
+    private final ThreadFactory threadFactory;
+    private final Object lock = new Object();
+    private final List<Fork<? extends T>> forks = new ArrayList<>();
+    private int remaining;
+    private boolean shutdown;
+    private boolean closed;
+    private Throwable firstFailure;
+
+    private TryScope(boolean shutdownOnFailure, ThreadFactory threadFactory) {
+        this.shutdownOnFailure = shutdownOnFailure;
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+    }
+
+    /**
+     * Returns a new scope shutting down on the first failure, running each task in a new platform thread.
+     *
+     * @param <T> the type of the values of the tasks
+     * @return a new scope
+     */
+    public static <T> TryScope<T> shutdownOnFailure() {
+        return shutdownOnFailure(Thread::new);
+    }
+
+    /**
+     * Returns a new scope shutting down on the first failure.
+     *
+     * @param threadFactory the factory of the threads running the tasks, such as a virtual thread factory
+     * @param <T> the type of the values of the tasks
+     * @return a new scope
+     * @throws NullPointerException if the thread factory is {@code null}
+     */
+    public static <T> TryScope<T> shutdownOnFailure(ThreadFactory threadFactory) {
+        return new TryScope<>(true, threadFactory);
+    }
+
+    /**
+     * Returns a new scope collecting every outcome, running each task in a new platform thread.
+     *
+     * @param <T> the type of the values of the tasks
+     * @return a new scope
+     */
+    public static <T> TryScope<T> collectAll() {
+        return collectAll(Thread::new);
+    }
+
+    /**
+     * Returns a new scope collecting every outcome.
+     *
+     * @param threadFactory the factory of the threads running the tasks, such as a virtual thread factory
+     * @param <T> the type of the values of the tasks
+     * @return a new scope
+     * @throws NullPointerException if the thread factory is {@code null}
+     */
+    public static <T> TryScope<T> collectAll(ThreadFactory threadFactory) {
+        return new TryScope<>(false, threadFactory);
+    }
+
+    /**
+     * Starts a task in a new thread. A {@code TryProcedure} can be forked as a {@code TrySupplier<Void>}.
+     * If the scope is shut down, the task is not started and its fork is cancelled.
+     *
+     * @param task the task
+     * @param <U> the type of the value of the task
+     * @return the fork of the task
+     * @throws NullPointerException if the task is {@code null}
+     * @throws IllegalStateException if the scope is closed
+     */
+    public <U extends T> Fork<U> fork(TrySupplier<? extends U> task) {
+        Objects.requireNonNull(task);
+        Fork<U> fork = new Fork<>();
+        synchronized (this.lock) {
+            if (this.closed) throw new IllegalStateException("Scope closed");
+            this.forks.add(fork);
+            if (this.shutdown) {
+                fork.cell.fail(new CancellationException());
+                return fork;
+            }
+            Thread thread = this.threadFactory.newThread(() -> run(fork, task));
+            if (thread == null) {
+                fork.cell.fail(new RejectedExecutionException("Thread factory returned null"));
+                return fork;
+            }
+            fork.thread = thread;
+            this.remaining++;
+        }
+        try {
+            fork.thread.start();
+        } catch (Throwable throwable) {
+            complete(fork, new Failure<>(throwable));
+        }
+        return fork;
+    }
+
+    /**
+     * Waits until every task is completed, or until the scope is shut down, and joins their outcomes.
+     *
+     * @return a {@code Success} containing the values of the tasks in fork order, or a {@code Failure} containing,
+     *         with the shutdown on failure policy, the throwable of the first failing task, or the
+     *         {@code CancellationException} of the first cancelled task if the scope was shut down otherwise,
+     *         and with the collect all policy, an {@link AccumulatedException} of every failure,
+     *         including the {@code CancellationException} of the tasks cancelled by a shutdown
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public Try<List<T>> join() throws InterruptedException {
+        List<Fork<? extends T>> forks;
+        synchronized (this.lock) {
+            while (this.remaining > 0 && !this.shutdown) {
+                this.lock.wait();
+            }
+            if (this.firstFailure != null && this.shutdownOnFailure) return new Failure<>(this.firstFailure);
+            forks = new ArrayList<>(this.forks);
+        }
+        List<T> values = new ArrayList<>(forks.size());
+        List<Throwable> failures = new ArrayList<>();
+        for (Fork<? extends T> fork : forks) {
+            Try<? extends T> result = fork.result();
+            if (result.isFailure()) failures.add(result.getThrowable());
+            else values.add(result.get());
+        }
+        if (failures.isEmpty()) return new Success<>(Collections.unmodifiableList(values));
+        if (this.shutdownOnFailure) return new Failure<>(failures.get(0));
+        return new Failure<>(new AccumulatedException(failures.toArray(new Throwable[0])));
+    }
+
+    /**
+     * Shuts the scope down: no more tasks are started, and the running tasks are cancelled.
+     */
+    public void shutdown() {
+        synchronized (this.lock) {
+            if (this.shutdown) return;
+            this.shutdown = true;
+            // cancelled before waking up the joining thread, so it finds every fork done
+            for (Fork<? extends T> fork : this.forks) {
+                if (fork.cell.fail(new CancellationException()) && fork.thread != null) fork.thread.interrupt();
+            }
+            this.lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the scope is shut down.
+     *
+     * @return {@code true} if the scope is shut down, {@code false} otherwise
+     */
+    public boolean isShutdown() {
+        synchronized (this.lock) {
+            return this.shutdown;
+        }
+    }
+
+    /**
+     * Shuts the scope down, and waits for every thread of the scope to terminate.
+     * If the current thread is interrupted while waiting, it keeps waiting, and its interrupt status is restored.
+     */
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            this.closed = true;
+        }
+        shutdown();
+        boolean interrupted = false;
+        for (Fork<? extends T> fork : this.forks) {
+            Thread thread = fork.thread;
+            while (thread != null && thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private <U extends T> void run(Fork<U> fork, TrySupplier<? extends U> task) {
+        complete(fork, Try.newTry(task));
+    }
+
+    private <U extends T> void complete(Fork<U> fork, Try<U> result) {
+        boolean shutdown = false;
+        synchronized (this.lock) {
+            this.remaining--;
+            if (fork.cell.complete(result) && result.isFailure()) {
+                if (this.firstFailure == null) this.firstFailure = result.getThrowable();
+                shutdown = this.shutdownOnFailure;
+            }
+            this.lock.notifyAll();
+        }
+        if (shutdown) shutdown();
+    }
+
+    /**
+     * The outcome of a forked task.
+     *
+     * @param <T> the type of the value of the task
+     */
+    public static final class Fork<T> {
+
+        private final TryCell<T> cell = new TryCell<>();
+        private volatile Thread thread;
+
+        private Fork() {}
+
+        /**
+         * Returns {@code true} if the task is completed or cancelled.
+         *
+         * @return {@code true} if the task is completed, {@code false} otherwise
+         */
+        public boolean isDone() {
+            return this.cell.isDone();
+        }
+
+        /**
+         * Returns the outcome of the task, a {@code Failure} containing a {@code CancellationException}
+         * if it was cancelled.
+         *
+         * @return the outcome of the task
+         * @throws IllegalStateException if the task is not completed
+         */
+        public Try<T> result() {
+            return this.cell.poll().orElseThrow(() -> new IllegalStateException("Task not completed"));
+        }
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.dwilliam.utils;
 
+import java.util.function.Supplier;
+
 @FunctionalInterface
 public interface TrySupplier<T> {
 
@@ -10,4 +12,20 @@ public interface TrySupplier<T> {
      */
     T get() throws Throwable;
 
+    /**
+     * Returns this supplier as a {@code Supplier}, throwing the throwables of this supplier as is,
+     * checked exceptions included, without wrapping them.
+     *
+     * @return a {@code Supplier} calling this supplier
+     */
+    default Supplier<T> asSupplier() {
+        return () -> {
+            try {
+                return get();
+            } catch (Throwable throwable) {
+                throw Sneaky.rethrow(throwable);
+            }
+        };
+    }
+
 }
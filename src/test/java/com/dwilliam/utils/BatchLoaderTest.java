@@ -0,0 +1,122 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+
+    Map<Integer, String> find(List<Integer> keys) {
+        calls.add(keys);
+        Map<Integer, String> values = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) values.put(key, "value " + key);
+        }
+        return values;
+    }
+
+    @Test
+    void load() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::find, 10, Duration.ZERO);
+        assertEquals(Try.value("value 1"), loader.load(1));
+        assertInstanceOf(NoSuchElementException.class, loader.load(-1).getThrowable());
+        assertEquals(List.of(List.of(1), List.of(-1)), calls);
+    }
+
+    @Test
+    void batch() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::find, 4, Duration.ofSeconds(10));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Try<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int key = i % 4 == 3 ? -i : i;
+                futures.add(executor.submit(() -> loader.load(key)));
+            }
+            for (int i = 0; i < 8; i++) {
+                Try<String> result = futures.get(i).get();
+                if (i % 4 == 3) assertTrue(result.isFailure());
+                else assertEquals(Try.value("value " + i), result);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2, calls.size());
+        assertEquals(new BatchLoader.Statistics(2, 8, 4), loader.statistics());
+        assertEquals(4, loader.statistics().averageBatchSize());
+    }
+
+    @Test
+    void window() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::find, 100, Duration.ofMillis(200));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Try<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                int key = i;
+                futures.add(executor.submit(() -> loader.load(key)));
+            }
+            for (Future<Try<String>> future : futures) {
+                assertTrue(future.get().isSuccess());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, calls.size());
+        assertEquals(3, calls.get(0).size());
+    }
+
+    @Test
+    void interruptedLeader() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::find, 10, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+        Thread.currentThread().interrupt();
+        assertEquals(Try.value("value 1"), loader.load(1));
+        assertTrue(Thread.interrupted());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void throwingMap() throws Exception {
+        RuntimeException exception = new IllegalStateException();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> new HashMap<>(find(keys)) {
+            @Override
+            public String get(Object key) {
+                if (key.equals(2)) throw exception;
+                return super.get(key);
+            }
+        }, 2, Duration.ofSeconds(10));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Try<String>> first = executor.submit(() -> loader.load(1));
+            Future<Try<String>> second = executor.submit(() -> loader.load(2));
+            assertEquals(Try.value("value 1"), first.get(10, TimeUnit.SECONDS));
+            assertEquals(exception, second.get(10, TimeUnit.SECONDS).getThrowable());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void failure() {
+        Exception exception = new IllegalStateException();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> { throw exception; }, 10, Duration.ZERO);
+        assertEquals(exception, loader.load(1).getThrowable());
+        assertThrows(IllegalArgumentException.class, () -> new BatchLoader<>(this::find, 0, Duration.ZERO));
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTest {
+
+    static final TryFunction<String, byte[]> encoder = s -> s.getBytes(StandardCharsets.UTF_8);
+    static final TryFunction<byte[], String> decoder = b -> new String(b, StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndRead() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+            writer.write(1, Try.newTry(() -> { throw new IOException("disk"); }));
+            writer.write(2, Try.value(""));
+        }
+
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        assertTrue(reader.isCompleted(0));
+        assertTrue(reader.isFailed(1));
+        assertTrue(reader.isCompleted(2));
+        assertFalse(reader.isCompleted(3));
+        assertEquals(Files.size(path), reader.length());
+
+        List<Try<String>> outcomes = new ArrayList<>();
+        reader.forEach((outcome, index) -> outcomes.add(outcome));
+        assertEquals(Try.value("zero"), outcomes.get(0));
+        RecordedThrowable throwable = assertInstanceOf(RecordedThrowable.class, outcomes.get(1).getThrowable());
+        assertEquals(IOException.class.getName(), throwable.className());
+        assertEquals("disk", throwable.getMessage());
+        assertEquals("java.io.IOException: disk", throwable.toString());
+        assertEquals(Try.value(""), outcomes.get(2));
+    }
+
+    @Test
+    void nullThrowable() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, new Failure<>(null));
+        }
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        assertTrue(reader.isFailed(0));
+        List<Try<String>> outcomes = new ArrayList<>();
+        reader.forEach((outcome, index) -> outcomes.add(outcome));
+        assertEquals(List.of(new Failure<>(null)), outcomes);
+    }
+
+    @Test
+    void appendedAfterOpen() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+        }
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(1, Try.value("one"));
+        }
+        List<Integer> indices = new ArrayList<>();
+        reader.forEach((outcome, index) -> indices.add(index));
+        assertEquals(List.of(0), indices);
+        assertFalse(reader.isCompleted(1));
+    }
+
+    @Test
+    void resume() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+            writer.write(1, Try.newTry(() -> { throw new IOException(); }));
+        }
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(1, Try.value("one"));
+            writer.write(2, Try.newTry(() -> { throw new IOException(); }));
+        }
+
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        BitSet completed = new BitSet();
+        completed.set(0, 2);
+        assertEquals(completed, reader.completed());
+        assertEquals(BitSet.valueOf(new long[] { 0b100 }), reader.failed());
+    }
+
+    @Test
+    void unclosedWriter() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+            writer.write(1, Try.value("one"));
+            writer.force();
+
+            CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+            assertTrue(Files.size(path) > reader.length());
+            assertEquals(2, reader.completed().cardinality());
+        }
+    }
+
+    @Test
+    void missingFile() throws IOException {
+        CheckpointReader<String> reader = CheckpointReader.open(directory.resolve("missing"), decoder);
+        assertTrue(reader.completed().isEmpty());
+        assertTrue(reader.failed().isEmpty());
+    }
+
+    @Test
+    void truncatedFile() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(i, Try.value("value " + i));
+            }
+        }
+        long size = Files.size(path);
+        long recordSize = CheckpointReader.RECORD_OVERHEAD + "value 0".length();
+
+        for (long cut = 1; cut < recordSize; cut++) {
+            Path copy = directory.resolve("copy" + cut);
+            Files.copy(path, copy);
+            try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+                channel.truncate(size - cut);
+            }
+            CheckpointReader<String> reader = CheckpointReader.open(copy, decoder);
+            assertEquals(9, reader.completed().cardinality());
+            assertFalse(reader.isCompleted(9));
+            assertEquals(size - recordSize, reader.length());
+
+            try (CheckpointWriter<String> writer = CheckpointWriter.open(copy, encoder)) {
+                writer.write(9, Try.value("retried"));
+            }
+            List<String> values = new ArrayList<>();
+            CheckpointReader.open(copy, decoder).forEach((outcome, index) -> values.add(outcome.get()));
+            assertEquals(10, values.size());
+            assertEquals("retried", values.get(9));
+        }
+    }
+
+    @Test
+    void corruptedFile() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+            writer.write(1, Try.value("one"));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X' }), Files.size(path) - 5);
+        }
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        assertTrue(reader.isCompleted(0));
+        assertFalse(reader.isCompleted(1));
+
+        Path other = directory.resolve("other");
+        Files.write(other, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        assertThrows(IOException.class, () -> CheckpointReader.open(other, decoder));
+    }
+
+    @Test
+    void oversizedLength() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(0, Try.value("zero"));
+        }
+        long valid = Files.size(path);
+        // a torn record whose length overflows an int once the record overhead is added,
+        // followed by a sparse hole making the file large enough to hold it
+        ByteBuffer torn = ByteBuffer.allocate(64).put((byte) 1).putInt(1).putInt(Integer.MAX_VALUE - 5);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(torn.clear(), valid);
+            channel.write(ByteBuffer.wrap(new byte[] { 0 }), valid + Integer.MAX_VALUE + 64L);
+        }
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        assertEquals(valid, reader.length());
+        assertTrue(reader.isCompleted(0));
+        assertFalse(reader.isCompleted(1));
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            writer.write(1, Try.value("one"));
+        }
+        assertTrue(CheckpointReader.open(path, decoder).isCompleted(1));
+    }
+
+    @Test
+    void largeFile() throws IOException {
+        Path path = directory.resolve("checkpoint");
+        String value = "x".repeat(1000);
+        try (CheckpointWriter<String> writer = CheckpointWriter.open(path, encoder)) {
+            for (int i = 0; i < 3000; i++) {
+                writer.write(i, Try.value(value));
+            }
+            writer.write(3000, Try.value("y".repeat(3 << 20)));
+        }
+        CheckpointReader<String> reader = CheckpointReader.open(path, decoder);
+        assertEquals(3001, reader.completed().cardinality());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultInjectorTest {
+
+    static List<Try<Integer>> run(FaultInjector injector, int count) {
+        TryFunction<Integer, Integer> function = injector.wrap(i -> i);
+        return IntStream.range(0, count)
+                .mapToObj(i -> Try.newTry(() -> function.apply(i)))
+                .collect(Collectors.toList());
+    }
+
+    static FaultInjector.Builder faults(long seed) {
+        return FaultInjector.builder()
+                .seed(seed)
+                .fault(0.1, IOException::new)
+                .fault(0.2, TimeoutException::new);
+    }
+
+    @Test
+    void faults() {
+        List<Try<Integer>> outcomes = run(faults(7).build(), 10_000);
+        long io = outcomes.stream().filter(t -> t.isFailure() && t.getThrowable() instanceof IOException).count();
+        long timeout = outcomes.stream().filter(t -> t.isFailure() && t.getThrowable() instanceof TimeoutException).count();
+        assertTrue(io > 800 && io < 1200, "io " + io);
+        assertTrue(timeout > 1800 && timeout < 2200, "timeout " + timeout);
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i).isSuccess()) assertEquals(i, outcomes.get(i).get());
+        }
+    }
+
+    @Test
+    void deterministic() {
+        List<Boolean> first = run(faults(7).build(), 1000).stream().map(Try::isFailure).collect(Collectors.toList());
+        assertEquals(first, run(faults(7).build(), 1000).stream().map(Try::isFailure).collect(Collectors.toList()));
+        assertNotEquals(first, run(faults(8).build(), 1000).stream().map(Try::isFailure).collect(Collectors.toList()));
+
+        FaultInjector injector = faults(7).build();
+        run(injector, 1000);
+        assertEquals(1000, injector.calls());
+        injector.reset();
+        assertEquals(first, run(injector, 1000).stream().map(Try::isFailure).collect(Collectors.toList()));
+    }
+
+    @Test
+    void toggle() {
+        FaultInjector injector = FaultInjector.builder().fault(1, IOException::new).enabled(false).build();
+        assertFalse(injector.isEnabled());
+        assertTrue(run(injector, 100).stream().allMatch(Try::isSuccess));
+        assertEquals(0, injector.calls());
+
+        injector.enable();
+        assertTrue(run(injector, 100).stream().allMatch(Try::isFailure));
+        injector.disable();
+        assertEquals(Try.value("a"), Try.newTry(injector.wrap(() -> "a")));
+    }
+
+    @Test
+    void latency() {
+        FaultInjector injector = FaultInjector.builder()
+                .latency(1, Duration.ofMillis(20), Duration.ofMillis(30))
+                .build();
+        long start = System.nanoTime();
+        assertEquals(List.of(Try.value(0), Try.value(1)), run(injector, 2));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(40).toNanos());
+
+        FaultInjector never = FaultInjector.builder().latency(0, random -> Long.MAX_VALUE).build();
+        assertEquals(Try.value(0), run(never, 1).get(0));
+    }
+
+    @Test
+    void interrupted() {
+        FaultInjector injector = FaultInjector.builder().latency(1, Duration.ofSeconds(10), Duration.ofSeconds(10)).build();
+        Thread.currentThread().interrupt();
+        try {
+            assertInstanceOf(InterruptedException.class, run(injector, 1).get(0).getThrowable());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> FaultInjector.builder().fault(1.5, IOException::new));
+        assertThrows(IllegalArgumentException.class, () -> FaultInjector.builder().fault(0.6, IOException::new).fault(0.6, IOException::new));
+        assertThrows(IllegalArgumentException.class, () -> FaultInjector.builder().latency(Double.NaN, random -> 0));
+        assertThrows(IllegalArgumentException.class, () -> FaultInjector.builder().latency(1, Duration.ofMillis(2), Duration.ofMillis(1)));
+    }
+
+}
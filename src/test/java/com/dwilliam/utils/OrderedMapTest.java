@@ -0,0 +1,166 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedMapTest {
+
+    static final Exception exception = new IllegalAccessException();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void order() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        TryFunction<Integer, Integer> mapper = i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            running.decrementAndGet();
+            if (i % 7 == 0) throw exception;
+            return i * 2;
+        };
+        List<Try<Integer>> outcomes;
+        try (Stream<Try<Integer>> stream = OrderedMap.stream(IntStream.range(0, 300).boxed(), mapper, executor, 4, 16)) {
+            outcomes = stream.collect(Collectors.toList());
+        }
+        assertEquals(300, outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (i % 7 == 0) assertEquals(new Failure<>(exception), outcomes.get(i));
+            else assertEquals(Try.value(i * 2), outcomes.get(i));
+        }
+        assertTrue(maxRunning.get() <= 4, "running " + maxRunning.get());
+    }
+
+    @Test
+    void lazy() {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<Integer> source = IntStream.range(0, 1_000_000).peek(i -> pulled.incrementAndGet()).iterator();
+        Iterator<Try<Integer>> outcomes = OrderedMap.iterator(source, i -> i, executor, 2, 5);
+        assertEquals(0, pulled.get());
+
+        assertEquals(Try.value(0), outcomes.next());
+        assertEquals(Try.value(1), outcomes.next());
+        assertEquals(6, pulled.get());
+
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Try<Integer>> first;
+        try (Stream<Try<Integer>> stream = OrderedMap.stream(Stream.iterate(0, i -> i + 1).onClose(() -> closed.set(true)), i -> i, executor, 3, 3)) {
+            first = stream.limit(10).collect(Collectors.toList());
+        }
+        assertEquals(IntStream.range(0, 10).mapToObj(Try::value).collect(Collectors.toList()), first);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void bounded() {
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger ahead = new AtomicInteger();
+        Iterator<Integer> source = IntStream.range(0, 1000)
+                .peek(i -> ahead.accumulateAndGet(pulled.incrementAndGet() - consumed.get(), Math::max))
+                .iterator();
+        Iterator<Try<Integer>> outcomes = OrderedMap.iterator(source, i -> i, executor, 2, 5);
+        while (outcomes.hasNext()) {
+            assertEquals(Try.value(consumed.get()), outcomes.next());
+            consumed.incrementAndGet();
+        }
+        assertEquals(1000, consumed.get());
+        assertEquals(5, ahead.get());
+    }
+
+    @Test
+    void close() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        TryFunction<Integer, Integer> mapper = i -> {
+            calls.incrementAndGet();
+            if (i > 0) release.await(10, TimeUnit.SECONDS);
+            return i;
+        };
+        Iterator<Try<Integer>> outcomes;
+        try (Stream<Try<Integer>> stream = OrderedMap.stream(IntStream.range(0, 10).boxed(), mapper, single, 1, 10)) {
+            outcomes = stream.iterator();
+            assertTrue(outcomes.hasNext());
+            // the call of 1 is running, the others are pending
+            while (calls.get() < 2) Thread.onSpinWait();
+        }
+        release.countDown();
+        single.shutdown();
+        assertTrue(single.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(Try.value(0), outcomes.next());
+        assertEquals(Try.value(1), outcomes.next());
+        assertInstanceOf(CancellationException.class, outcomes.next().getThrowable());
+    }
+
+    @Test
+    void abandoned() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        TryFunction<Integer, Integer> mapper = i -> {
+            calls.incrementAndGet();
+            release.await(10, TimeUnit.SECONDS);
+            return i;
+        };
+        Iterator<Try<Integer>> outcomes = OrderedMap.iterator(IntStream.range(0, 10).iterator(), mapper, single, 1, 10);
+        assertTrue(outcomes.hasNext());
+        WeakReference<Iterator<Try<Integer>>> reference = new WeakReference<>(outcomes);
+        outcomes = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        // let the cleaner discard the pending elements
+        Thread.sleep(100);
+        release.countDown();
+        single.shutdown();
+        assertTrue(single.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void empty() {
+        Iterator<Try<Object>> outcomes = OrderedMap.iterator(List.of().iterator(), o -> o, executor, 1, 1);
+        assertFalse(outcomes.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, outcomes::next);
+        assertThrows(IllegalArgumentException.class, () -> OrderedMap.iterator(List.of().iterator(), o -> o, executor, 2, 1));
+    }
+
+    @Test
+    void rejected() {
+        executor.shutdown();
+        Iterator<Try<Integer>> outcomes = OrderedMap.iterator(List.of(1, 2, 3).iterator(), i -> i, executor, 2, 2);
+        for (int i = 0; i < 3; i++) {
+            assertInstanceOf(RejectedExecutionException.class, outcomes.next().getThrowable());
+        }
+        assertFalse(outcomes.hasNext());
+    }
+
+}
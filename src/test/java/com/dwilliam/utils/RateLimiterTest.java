@@ -0,0 +1,99 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burst() {
+        RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(1), 3, clock::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        for (int i = 0; i < 3; i++) assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void fastFailure() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofSeconds(1), 1, clock::get);
+        TryFunction<Integer, Integer> function = limiter.wrap(i -> i * 2);
+        assertEquals(Try.value(4), Try.newTry(() -> function.apply(2)));
+
+        Try<Integer> refused = Try.newTry(() -> function.apply(3));
+        RateLimitException exception = assertInstanceOf(RateLimitException.class, refused.getThrowable());
+        assertEquals(Duration.ofSeconds(1), exception.retryAfter());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void waiting() {
+        RateLimiter limiter = new RateLimiter(20, Duration.ofSeconds(1), 1);
+        TrySupplier<String> supplier = limiter.wrap(() -> "a", Duration.ofSeconds(1));
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) assertEquals(Try.value("a"), Try.newTry(supplier));
+        // the first permit is immediate, the next ones are 50ms apart
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+
+        RateLimiter slow = new RateLimiter(1, Duration.ofHours(1), 1);
+        assertTrue(slow.tryAcquire());
+        assertInstanceOf(RateLimitException.class, Try.newTry(slow.wrap(() -> "b", Duration.ofMillis(10))).getThrowable());
+    }
+
+    @Test
+    void contention() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000, Duration.ofHours(1), 1000, clock::get);
+        AtomicInteger acquired = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (limiter.tryAcquire()) acquired.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(1000, acquired.get());
+    }
+
+    @Test
+    void keyed() {
+        KeyedRateLimiter<String> limiters = new KeyedRateLimiter<>(1, Duration.ofSeconds(1), 1, Duration.ofSeconds(5), clock::get);
+        TryFunction<String, String> function = limiters.wrap(String::toUpperCase);
+        assertEquals(Try.value("A"), Try.newTry(() -> function.apply("a")));
+        assertEquals(Try.value("B"), Try.newTry(() -> function.apply("b")));
+        assertTrue(Try.newTry(() -> function.apply("a")).isFailure());
+        assertEquals(2, limiters.size());
+
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+        assertEquals(Try.value("A"), Try.newTry(() -> function.apply("a")));
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        limiters.limiter("c");
+        // b has been full for 6s, a for 3s
+        assertEquals(2, limiters.size());
+        assertSame(limiters.limiter("a"), limiters.limiter("a"));
+
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter<>(0, Duration.ofSeconds(1), 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(10, Duration.ofNanos(5)));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordReaderTest {
+
+    @TempDir
+    Path directory;
+
+    Path write(String name, byte[] content) throws IOException {
+        return Files.write(directory.resolve(name), content);
+    }
+
+    @Test
+    void lines() throws IOException {
+        Path path = write("lines", "1\n2\r\nx\n\n4".getBytes(StandardCharsets.UTF_8));
+        List<Try<Integer>> records;
+        try (Stream<Try<Integer>> stream = RecordReader.lines(path, s -> Integer.parseInt(s.toString()))) {
+            records = stream.collect(Collectors.toList());
+        }
+        assertEquals(5, records.size());
+        assertEquals(Try.value(1), records.get(0));
+        assertEquals(Try.value(2), records.get(1));
+        RecordException exception = assertInstanceOf(RecordException.class, records.get(2).getThrowable());
+        assertEquals(5, exception.offset());
+        assertInstanceOf(NumberFormatException.class, exception.getCause());
+        assertEquals(7, ((RecordException) records.get(3).getThrowable()).offset());
+        assertEquals(Try.value(4), records.get(4));
+    }
+
+    @Test
+    void records() throws IOException {
+        Path path = write("records", "a;b\u00e9;;c;".getBytes(StandardCharsets.UTF_8));
+        for (boolean mapped : new boolean[] { false, true }) {
+            try (Stream<Try<String>> stream = RecordReader.records(path, StandardCharsets.UTF_8, (byte) ';', mapped, CharSequence::toString)) {
+                assertEquals(List.of("a", "b\u00e9", "", "c"), stream.map(Try::get).collect(Collectors.toList()));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> RecordReader.records(path, StandardCharsets.UTF_16, (byte) ';', false, CharSequence::toString));
+    }
+
+    @Test
+    void malformed() throws IOException {
+        Path path = write("malformed", new byte[] { 'a', '\n', (byte) 0xC3, '\n', 'b' });
+        try (Stream<Try<String>> stream = RecordReader.lines(path, CharSequence::toString)) {
+            List<Try<String>> records = stream.collect(Collectors.toList());
+            assertEquals(Try.value("a"), records.get(0));
+            assertInstanceOf(CharacterCodingException.class, records.get(1).getThrowable().getCause());
+            assertEquals(Try.value("b"), records.get(2));
+        }
+    }
+
+    @Test
+    void empty() throws IOException {
+        Path path = write("empty", new byte[0]);
+        try (Stream<Try<String>> stream = RecordReader.lines(path, CharSequence::toString)) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void longRecord() throws IOException {
+        String record = "x".repeat(3 << 20);
+        Path path = write("long", ("a\n" + record + "\nb").getBytes(StandardCharsets.US_ASCII));
+        for (boolean mapped : new boolean[] { false, true }) {
+            try (Stream<Try<Integer>> stream = RecordReader.records(path, StandardCharsets.US_ASCII, (byte) '\n', mapped, CharSequence::length)) {
+                assertEquals(List.of(1, record.length(), 1), stream.map(Try::get).collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    void tooLongRecord() throws IOException {
+        Path path = write("tooLong", ("a\n" + "x".repeat(100) + "\nb\n" + "y".repeat(100)).getBytes(StandardCharsets.US_ASCII));
+        for (boolean mapped : new boolean[] { false, true }) {
+            try (Stream<Try<String>> stream = RecordReader.records(path, StandardCharsets.US_ASCII, (byte) '\n', mapped, 16, CharSequence::toString)) {
+                List<Try<String>> records = stream.collect(Collectors.toList());
+                assertEquals(4, records.size());
+                assertEquals(Try.value("a"), records.get(0));
+                assertEquals(2, assertInstanceOf(RecordException.class, records.get(1).getThrowable()).offset());
+                assertEquals(Try.value("b"), records.get(2));
+                assertEquals(105, assertInstanceOf(RecordException.class, records.get(3).getThrowable()).offset());
+            }
+        }
+    }
+
+    @Test
+    void parallel() throws IOException {
+        String content = IntStream.range(0, 500_000)
+                .mapToObj(i -> i % 1000 == 0 ? "invalid" : Integer.toString(i))
+                .collect(Collectors.joining("\n", "", "\n"));
+        Path path = write("parallel", content.getBytes(StandardCharsets.UTF_8));
+        for (boolean mapped : new boolean[] { false, true }) {
+            try (Stream<Try<Integer>> stream = RecordReader.records(path, StandardCharsets.UTF_8, (byte) '\n', mapped, s -> Integer.parseInt(s.toString()))) {
+                List<Try<Integer>> records = stream.parallel().collect(Collectors.toList());
+                assertEquals(500_000, records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    if (i % 1000 == 0) assertTrue(records.get(i).isFailure());
+                    else assertEquals(i, records.get(i).get());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecoveryTableTest {
+
+    final RecoveryTable<Integer> table = RecoveryTable.<Integer>builder()
+            .on(FileNotFoundException.class, e -> 1)
+            .on(IOException.class, e -> 2)
+            .on(RuntimeException.class, e -> { throw new IllegalStateException(e); })
+            .build();
+
+    @Test
+    void recover() {
+        assertEquals(Try.value(1), Try.<Integer>newTry(() -> { throw new FileNotFoundException(); }).recover(table));
+        assertEquals(Try.value(2), Try.<Integer>newTry(() -> { throw new IOException(); }).recover(table));
+        assertEquals(Try.value(0), Try.value(0).recover(table));
+
+        Exception unhandled = new InterruptedException();
+        assertEquals(unhandled, Try.<Integer>newTry(() -> { throw unhandled; }).recover(table).getThrowable());
+
+        Throwable thrown = Try.<Integer>newTry(() -> { throw new UncheckedIOException(new IOException()); }).recover(table).getThrowable();
+        assertInstanceOf(IllegalStateException.class, thrown);
+        assertInstanceOf(UncheckedIOException.class, thrown.getCause());
+    }
+
+    @Test
+    void mapThrowable() {
+        RecoveryTable<Throwable> translations = RecoveryTable.<Throwable>builder()
+                .on(IOException.class, UncheckedIOException::new)
+                .build();
+
+        Throwable mapped = Try.newTry(() -> { throw new FileNotFoundException(); }).mapThrowable(translations).getThrowable();
+        assertInstanceOf(UncheckedIOException.class, mapped);
+        assertInstanceOf(InterruptedException.class, Try.newTry(() -> { throw new InterruptedException(); }).mapThrowable(translations).getThrowable());
+    }
+
+    @Test
+    void handles() {
+        assertTrue(table.handles(FileNotFoundException.class));
+        assertTrue(table.handles(IllegalArgumentException.class));
+        assertFalse(table.handles(Exception.class));
+        assertFalse(table.handles(Error.class));
+    }
+
+    @Test
+    void builder() {
+        RecoveryTable.Builder<Integer> builder = RecoveryTable.<Integer>builder().on(IOException.class, e -> 0);
+        assertThrows(IllegalArgumentException.class, () -> builder.on(IOException.class, e -> 1));
+        assertThrows(NullPointerException.class, () -> builder.on(null, e -> 1));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryArrayTest {
+
+    static final Exception exception = new IllegalAccessException();
+
+    TryArray<Object> array;
+
+    @BeforeEach
+    void beforeEach() {
+        array = TryArray.of(List.of(Try.value(0), Try.newTry(() -> { throw exception; }), Try.value(exception)));
+    }
+
+    @Test
+    void get() {
+        assertEquals(3, array.size());
+        assertEquals(Try.value(0), array.get(0));
+        assertEquals(exception, array.get(1).getThrowable());
+        assertEquals(Try.value(exception), array.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(3));
+
+        assertEquals(Try.value(null), new TryArray<>(1).get(0));
+    }
+
+    @Test
+    void value() {
+        assertEquals(0, array.value(0));
+        assertThrows(NoSuchElementException.class, () -> array.value(1));
+        assertEquals(exception, array.throwable(1));
+        assertThrows(NoSuchElementException.class, () -> array.throwable(2));
+    }
+
+    @Test
+    void set() {
+        assertTrue(array.isSuccess(0));
+        array.setThrowable(0, exception);
+        assertTrue(array.isFailure(0));
+        array.set(1, Try.value(1));
+        assertTrue(array.isSuccess(1));
+        assertEquals(1, array.value(1));
+        assertEquals(1, array.failureCount());
+        assertEquals(2, array.successCount());
+    }
+
+    @Test
+    void streams() {
+        assertEquals(List.of(0, 2), array.successIndices().boxed().collect(Collectors.toList()));
+        assertEquals(List.of(1), array.failureIndices().boxed().collect(Collectors.toList()));
+        assertEquals(List.of(0, exception), array.successes().collect(Collectors.toList()));
+        assertEquals(List.of(exception), array.failures().collect(Collectors.toList()));
+    }
+
+    @Test
+    void parallelStream() {
+        int size = 100_000;
+        TryArray<Integer> large = new TryArray<>(size);
+        for (int i = 0; i < size; i++) {
+            if (i % 10 == 0) large.setThrowable(i, exception);
+            else large.setValue(i, i);
+        }
+
+        List<Try<Integer>> expected = IntStream.range(0, size).mapToObj(large::get).collect(Collectors.toList());
+        assertEquals(expected, large.stream().parallel().collect(Collectors.toList()));
+        assertEquals(size / 10, large.stream().parallel().filter(Try::isFailure).count());
+        assertEquals(expected.get(0), large.iterator().next());
+    }
+
+}
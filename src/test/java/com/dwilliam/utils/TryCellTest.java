@@ -0,0 +1,177 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryCellTest {
+
+    static final Exception exception = new IllegalAccessException();
+
+    @Test
+    void complete() {
+        TryCell<Integer> cell = new TryCell<>();
+        assertFalse(cell.isDone());
+        assertEquals(Optional.empty(), cell.poll());
+
+        assertTrue(cell.succeed(0));
+        assertFalse(cell.succeed(1));
+        assertFalse(cell.fail(exception));
+        assertTrue(cell.isDone());
+        assertEquals(Optional.of(Try.value(0)), cell.poll());
+
+        TryCell<Integer> failed = new TryCell<>();
+        assertTrue(failed.completeWith(() -> { throw exception; }));
+        assertEquals(exception, failed.poll().orElseThrow().getThrowable());
+    }
+
+    @Test
+    void onComplete() {
+        TryCell<Integer> cell = new TryCell<>();
+        List<Integer> calls = new ArrayList<>();
+        cell.onComplete(t -> calls.add(1));
+        cell.onComplete(t -> { throw new IllegalStateException(); });
+        cell.onComplete(t -> calls.add(t.get()));
+        assertTrue(calls.isEmpty());
+
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        List<Throwable> uncaught = new ArrayList<>();
+        thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+        try {
+            cell.succeed(2);
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+        cell.onComplete(t -> calls.add(3));
+        assertEquals(List.of(1, 2, 3), calls);
+        assertInstanceOf(IllegalStateException.class, uncaught.get(0));
+    }
+
+    @Test
+    void await() throws Exception {
+        TryCell<Integer> cell = new TryCell<>();
+        assertThrows(TimeoutException.class, () -> cell.await(10, TimeUnit.MILLISECONDS));
+
+        int threads = 8;
+        CountDownLatch started = new CountDownLatch(threads);
+        AtomicInteger sum = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        sum.addAndGet(cell.await().get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            started.await();
+            cell.succeed(1);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(threads, sum.get());
+        assertEquals(Try.value(1), cell.await(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void interrupt() {
+        TryCell<Integer> cell = new TryCell<>();
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, cell::await);
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void cancelledWaiters() throws Exception {
+        TryCell<Integer> cell = new TryCell<>();
+        List<Integer> calls = new ArrayList<>();
+        cell.onComplete(t -> calls.add(1));
+        AtomicReference<Try<Integer>> awaited = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                awaited.set(cell.await());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) Thread.onSpinWait();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThrows(TimeoutException.class, () -> cell.await(0, TimeUnit.NANOSECONDS));
+        }
+        Thread interrupted = new Thread(() -> assertThrows(InterruptedException.class, cell::await));
+        interrupted.start();
+        while (interrupted.getState() != Thread.State.WAITING) Thread.onSpinWait();
+        interrupted.interrupt();
+        interrupted.join();
+        cell.onComplete(t -> calls.add(2));
+        // the two callbacks and the waiting thread
+        assertEquals(3, stackSize(cell));
+
+        cell.succeed(1);
+        waiter.join();
+        assertEquals(Try.value(1), awaited.get());
+        assertEquals(List.of(1, 2), calls);
+    }
+
+    @Test
+    void race() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            TryCell<Integer> cell = new TryCell<>();
+            AtomicInteger winners = new AtomicInteger();
+            AtomicInteger callbacks = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int value = i;
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    cell.onComplete(t -> callbacks.incrementAndGet());
+                    if (cell.succeed(value)) winners.incrementAndGet();
+                }));
+            }
+            threads.forEach(Thread::start);
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(1, winners.get());
+            assertEquals(4, callbacks.get());
+        }
+    }
+
+    static int stackSize(TryCell<?> cell) throws ReflectiveOperationException {
+        Field state = TryCell.class.getDeclaredField("state");
+        state.setAccessible(true);
+        int size = 0;
+        for (Object node = state.get(cell); node != null; size++) {
+            Field next = node.getClass().getDeclaredField("next");
+            next.setAccessible(true);
+            node = next.get(node);
+        }
+        return size;
+    }
+
+}
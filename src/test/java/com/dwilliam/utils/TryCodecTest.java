@@ -0,0 +1,122 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryCodecTest {
+
+    final TryCodec.ValueCodec<String> utf8 = TryCodec.ValueCodec.ofBytes(
+            s -> s.getBytes(StandardCharsets.UTF_8),
+            b -> new String(b, StandardCharsets.UTF_8));
+
+    final TryCodec<String> codec = new TryCodec<>(utf8);
+
+    @Test
+    void success() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        codec.encode(Try.value("value"), buffer);
+        codec.encode(Try.value(""), buffer);
+        buffer.flip();
+        assertEquals(Try.value("value"), codec.decode(buffer));
+        assertEquals(Try.value(""), codec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void failure() {
+        IOException cause = new IOException("disk");
+        Exception exception = new UncheckedIOException("wrapped", cause);
+        TryCodec<String> complete = new TryCodec<>(utf8, Integer.MAX_VALUE, 8);
+        ByteBuffer buffer = ByteBuffer.allocate(16384);
+        complete.encode(Try.newTry(() -> { throw exception; }), buffer);
+        buffer.flip();
+
+        RecordedThrowable decoded = assertInstanceOf(RecordedThrowable.class, complete.decode(buffer).getThrowable());
+        assertEquals(UncheckedIOException.class.getName(), decoded.className());
+        assertEquals("wrapped", decoded.getMessage());
+        assertArrayEquals(exception.getStackTrace(), decoded.getStackTrace());
+
+        RecordedThrowable decodedCause = assertInstanceOf(RecordedThrowable.class, decoded.getCause());
+        assertEquals(IOException.class.getName(), decodedCause.className());
+        assertEquals("disk", decodedCause.getMessage());
+        assertArrayEquals(cause.getStackTrace(), decodedCause.getStackTrace());
+        assertNull(decodedCause.getCause());
+    }
+
+    @Test
+    void nullThrowable() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        codec.encode(new Failure<>(null), buffer);
+        buffer.flip();
+        assertEquals(new Failure<>(null), codec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void truncation() {
+        TryCodec<String> truncating = new TryCodec<>(utf8, 2, 0);
+        Exception exception = new IllegalStateException(new IOException());
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        truncating.encode(Try.newTry(() -> { throw exception; }), buffer);
+        buffer.flip();
+
+        Throwable decoded = truncating.decode(buffer).getThrowable();
+        assertEquals(2, decoded.getStackTrace().length);
+        assertEquals(exception.getStackTrace()[0], decoded.getStackTrace()[0]);
+        assertNull(decoded.getCause());
+    }
+
+    @Test
+    void reencode() {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        codec.encode(Try.newTry(() -> { throw new IllegalStateException(new IOException()); }), buffer);
+        int size = buffer.position();
+        buffer.flip();
+        Try<String> decoded = codec.decode(buffer);
+
+        ByteBuffer other = ByteBuffer.allocate(8192);
+        codec.encode(decoded, other);
+        assertEquals(size, other.position());
+    }
+
+    @Test
+    void size() throws IOException {
+        Exception exception = new IllegalStateException("state", new IOException("disk"));
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        codec.encode(Try.newTry(() -> { throw exception; }), buffer);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(exception);
+        }
+        assertTrue(buffer.position() < bytes.size() / 2, buffer.position() + " bytes against " + bytes.size());
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 7 })));
+        assertThrows(IllegalArgumentException.class, () -> new TryCodec<>(utf8, -1, 0));
+    }
+
+    @Test
+    void invalidSizes() {
+        // a chain of Integer.MAX_VALUE throwables, then of Integer.MIN_VALUE throwables
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 1, -1, -1, -1, -1, 7 })));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 1, -128, -128, -128, -128, 8 })));
+        // a class name of Integer.MAX_VALUE bytes
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 1, 1, 1, -1, -1, -1, -1, 7 })));
+        // a stack trace of 100 frames in a few bytes
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 1, 1, 1, 1, 'E', 0, 100 })));
+        // a value of -1 bytes
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(new byte[] { 0, -1, -1, -1, -1 })));
+    }
+
+}
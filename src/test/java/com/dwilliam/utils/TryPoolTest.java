@@ -0,0 +1,170 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryPoolTest {
+
+    static final class Resource implements AutoCloseable {
+
+        final int id;
+        final AtomicBoolean inUse = new AtomicBoolean();
+        boolean closed;
+
+        Resource(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+    }
+
+    final AtomicInteger created = new AtomicInteger();
+
+    Resource create() {
+        return new Resource(created.getAndIncrement());
+    }
+
+    @Test
+    void reuse() {
+        try (TryPool<Resource> pool = TryPool.builder(this::create).maxSize(2).build()) {
+            assertEquals(Try.value(0), pool.use(r -> r.id));
+            assertEquals(Try.value(0), pool.use(r -> r.id));
+            assertEquals(1, pool.size());
+
+            Exception exception = new IllegalStateException();
+            assertEquals(new Failure<>(exception), pool.use(r -> { throw exception; }));
+            assertEquals(Try.value(0), pool.use(r -> r.id));
+        }
+    }
+
+    @Test
+    void invalidate() {
+        List<Resource> destroyed = new ArrayList<>();
+        try (TryPool<Resource> pool = TryPool.builder(this::create).invalidateOn(IOException.class).destroyer(destroyed::add).build()) {
+            assertTrue(pool.use(r -> { throw new java.io.FileNotFoundException(); }).isFailure());
+            assertEquals(1, destroyed.size());
+            assertEquals(0, pool.size());
+            assertEquals(Try.value(1), pool.use(r -> r.id));
+        }
+        assertEquals(2, destroyed.size());
+    }
+
+    @Test
+    void timeout() throws InterruptedException {
+        TryPool<Resource> pool = TryPool.builder(this::create).maxSize(1).acquireTimeout(Duration.ofMillis(50)).build();
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> pool.use(r -> {
+            acquired.countDown();
+            return done.await(10, TimeUnit.SECONDS);
+        }));
+        holder.start();
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, pool.use(r -> r.id).getThrowable());
+        done.countDown();
+        holder.join();
+        assertEquals(Try.value(0), pool.use(r -> r.id));
+
+        Resource resource = pool.use(r -> r).get();
+        pool.close();
+        assertTrue(resource.closed);
+        assertInstanceOf(IllegalStateException.class, pool.use(r -> r.id).getThrowable());
+    }
+
+    @Test
+    void closedWhileWaiting() throws InterruptedException {
+        TryPool<Resource> pool = TryPool.builder(this::create).maxSize(1).acquireTimeout(Duration.ofSeconds(10)).build();
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> pool.use(r -> {
+            acquired.countDown();
+            return done.await(10, TimeUnit.SECONDS);
+        }));
+        holder.start();
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        List<Try<Integer>> waited = new ArrayList<>();
+        Thread waiter = new Thread(() -> waited.add(pool.use(r -> r.id)));
+        waiter.start();
+        while (waiter.getState() != Thread.State.TIMED_WAITING) Thread.onSpinWait();
+
+        pool.close();
+        done.countDown();
+        holder.join();
+        waiter.join();
+        assertInstanceOf(IllegalStateException.class, waited.get(0).getThrowable());
+        assertEquals(1, created.get());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void destroyedNotRetained() throws InterruptedException {
+        try (TryPool<Resource> pool = TryPool.builder(this::create).invalidateOn(IOException.class).build()) {
+            WeakReference<Resource> reference = new WeakReference<>(pool.use(r -> r).get());
+            assertTrue(pool.use(r -> { throw new IOException(); }).isFailure());
+            for (int i = 0; i < 100 && reference.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(reference.get());
+        }
+    }
+
+    @Test
+    void factoryFailure() {
+        Exception exception = new IOException();
+        try (TryPool<Resource> pool = TryPool.<Resource>builder(() -> { throw exception; }).maxSize(1).build()) {
+            assertEquals(new Failure<>(exception), pool.use(r -> r.id));
+            assertEquals(new Failure<>(exception), pool.use(r -> r.id));
+            assertEquals(0, pool.size());
+        }
+    }
+
+    @Test
+    void contention() throws InterruptedException {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger failures = new AtomicInteger();
+        try (TryPool<Resource> pool = TryPool.builder(this::create).maxSize(3).invalidateOn(IOException.class).build()) {
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        int k = j;
+                        Try<Integer> result = pool.use(r -> {
+                            if (!r.inUse.compareAndSet(false, true)) throw new AssertionError("shared " + r.id);
+                            ids.add(r.id);
+                            r.inUse.set(false);
+                            if (k % 500 == 0) throw new IOException();
+                            return r.id;
+                        });
+                        if (result.isFailure() && !(result.getThrowable() instanceof IOException)) failures.incrementAndGet();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) thread.join();
+            assertEquals(0, failures.get());
+            assertTrue(pool.size() <= 3);
+        }
+        assertEquals(created.get(), ids.size());
+    }
+
+}
@@ -0,0 +1,295 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryProcessorTest {
+
+    static final Exception exception = new IllegalAccessException();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    static Integer check(Integer i) throws Exception {
+        if (i % 3 == 0) throw exception;
+        return i;
+    }
+
+    /**
+     * Publishes 0 until the given count, on request, and records the largest demand not yet fulfilled.
+     */
+    static final class CountingPublisher implements Flow.Publisher<Integer> {
+
+        final int count;
+        final AtomicLong demand = new AtomicLong();
+        final AtomicLong maxDemand = new AtomicLong();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        int next;
+
+        CountingPublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public synchronized void request(long n) {
+                    maxDemand.accumulateAndGet(demand.addAndGet(n), Math::max);
+                    while (demand.get() > 0 && next < count) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(next++);
+                    }
+                    if (next == count) {
+                        next++;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Records the received items, and lets the test request them.
+     */
+    static final class ManualSubscriber<T> implements Flow.Subscriber<T> {
+
+        final List<T> items = new ArrayList<>();
+        final CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.complete(subscription);
+        }
+
+        @Override
+        public synchronized void onNext(T item) {
+            this.items.add(item);
+            notifyAll();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.complete(null);
+        }
+
+        void request(long n) throws Exception {
+            this.subscription.get(10, TimeUnit.SECONDS).request(n);
+        }
+
+        synchronized List<T> awaitItems(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (this.items.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            return new ArrayList<>(this.items);
+        }
+
+    }
+
+    @Test
+    void outcomes() throws Exception {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(TryProcessorTest::check);
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        new CountingPublisher(6).subscribe(processor);
+        subscriber.request(Long.MAX_VALUE);
+
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of(new Failure<>(exception), Try.value(1), Try.value(2), new Failure<>(exception), Try.value(4), Try.value(5)),
+                subscriber.items);
+    }
+
+    @Test
+    void demand() throws Exception {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i, executor, 2, 2);
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        CountingPublisher publisher = new CountingPublisher(100);
+        publisher.subscribe(processor);
+
+        subscriber.request(3);
+        assertEquals(3, subscriber.awaitItems(3).size());
+        Thread.sleep(100);
+        assertEquals(3, subscriber.items.size());
+        // 2 buffered downstream, 2 blocked publishing, 2 requested upstream
+        assertTrue(publisher.next <= 3 + 6, "pulled " + publisher.next);
+        assertTrue(publisher.maxDemand.get() <= 2, "demand " + publisher.maxDemand.get());
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        assertEquals(100, subscriber.items.size());
+        assertEquals(4950, subscriber.items.stream().mapToInt(Try::get).sum());
+    }
+
+    @Test
+    void error() throws Exception {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i, executor, 2, 4);
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {}
+        });
+        subscriber.request(Long.MAX_VALUE);
+        processor.onNext(1);
+        assertEquals(List.of(Try.value(1)), subscriber.awaitItems(1));
+        processor.onError(exception);
+
+        Exception thrown = assertThrows(Exception.class, () -> subscriber.done.get(10, TimeUnit.SECONDS));
+        assertEquals(exception, thrown.getCause());
+    }
+
+    @Test
+    void secondSubscription() {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i);
+        new CountingPublisher(0).subscribe(processor);
+        CountingPublisher second = new CountingPublisher(0);
+        second.subscribe(processor);
+        assertTrue(second.cancelled.get());
+        assertThrows(IllegalArgumentException.class, () -> new TryProcessor<Integer, Integer>(i -> i, executor, 0, 1));
+    }
+
+    @Test
+    void lateSubscriber() throws Exception {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i, executor, 2, 4);
+        CountingPublisher publisher = new CountingPublisher(10);
+        publisher.subscribe(processor);
+        Thread.sleep(50);
+        assertEquals(0, publisher.maxDemand.get());
+
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        assertEquals(10, subscriber.items.size());
+        assertFalse(publisher.cancelled.get());
+    }
+
+    @Test
+    void downstreamCancel() throws Exception {
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i, executor, 1, 2);
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        CountingPublisher publisher = new CountingPublisher(100);
+        publisher.subscribe(processor);
+        subscriber.request(2);
+        assertEquals(2, subscriber.awaitItems(2).size());
+
+        subscriber.subscription.get().cancel();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!publisher.cancelled.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(publisher.cancelled.get());
+        assertTrue(publisher.next < 100);
+        assertTrue(processor.isClosed());
+    }
+
+    @Test
+    void close() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> i, Runnable::run, 1, 4);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet((int) n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        assertEquals(1, requested.get());
+
+        processor.close();
+        assertTrue(cancelled.get());
+        subscriber.request(1);
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        // an item sent before the cancellation is seen is dropped, without requesting more
+        processor.onNext(1);
+        assertEquals(1, requested.get());
+
+        CountingPublisher publisher = new CountingPublisher(1);
+        publisher.subscribe(processor);
+        assertTrue(publisher.cancelled.get());
+    }
+
+    @Test
+    void successes() throws Exception {
+        SuccessProcessor<Integer, Integer> processor = new SuccessProcessor<>(TryProcessorTest::check, executor, 3, 4);
+        ManualSubscriber<Integer> values = new ManualSubscriber<>();
+        ManualSubscriber<Throwable> errors = new ManualSubscriber<>();
+        processor.subscribe(values);
+        processor.errors().subscribe(errors);
+        new CountingPublisher(30).subscribe(processor);
+        values.request(Long.MAX_VALUE);
+        errors.request(Long.MAX_VALUE);
+
+        values.done.get(10, TimeUnit.SECONDS);
+        errors.done.get(10, TimeUnit.SECONDS);
+        assertEquals(20, values.items.size());
+        assertTrue(values.items.stream().noneMatch(i -> i % 3 == 0));
+        assertEquals(10, errors.items.size());
+        assertTrue(errors.items.stream().allMatch(exception::equals));
+    }
+
+    @Test
+    void concurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        TryProcessor<Integer, Integer> processor = new TryProcessor<>(i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            latch.await(10, TimeUnit.MILLISECONDS);
+            running.decrementAndGet();
+            return i;
+        }, executor, 3, 16);
+        ManualSubscriber<Try<Integer>> subscriber = new ManualSubscriber<>();
+        processor.subscribe(subscriber);
+        new CountingPublisher(20).subscribe(processor);
+        subscriber.request(Long.MAX_VALUE);
+
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        assertEquals(20, subscriber.items.size());
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+}
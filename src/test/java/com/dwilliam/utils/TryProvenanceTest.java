@@ -0,0 +1,98 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryProvenanceTest {
+
+    @AfterEach
+    void afterEach() {
+        TryProvenance.setSamplingRate(0);
+        TryProvenance.setMaxFrames(4);
+    }
+
+    static Integer fail(Integer i) throws Exception {
+        throw new IllegalStateException();
+    }
+
+    Try<Integer> stage() {
+        return Try.value(1).map((TryFunction<Integer, Integer>) TryProvenanceTest::fail);
+    }
+
+    @Test
+    void disabled() {
+        Throwable throwable = stage().getThrowable();
+        assertEquals(0, throwable.getSuppressed().length);
+        assertEquals(Optional.empty(), TryProvenance.of(throwable));
+    }
+
+    @Test
+    void callSite() {
+        TryProvenance.setSamplingRate(1);
+        TryProvenance.setMaxFrames(2);
+        Throwable throwable = stage().getThrowable();
+        List<StackTraceElement> callSite = TryProvenance.of(throwable).orElseThrow();
+        assertEquals(2, callSite.size());
+        assertEquals(TryProvenanceTest.class.getName(), callSite.get(0).getClassName());
+        assertEquals("stage", callSite.get(0).getMethodName());
+        assertEquals("callSite", callSite.get(1).getMethodName());
+        assertInstanceOf(TryProvenance.Marker.class, throwable.getSuppressed()[0]);
+
+        Throwable flatMapped = Try.value(1).flatMap((TryFunction<Integer, Try<Integer>>) i -> { throw new IllegalStateException(); }).getThrowable();
+        assertEquals("callSite", TryProvenance.of(flatMapped).orElseThrow().get(0).getMethodName());
+    }
+
+    @Test
+    void once() {
+        TryProvenance.setSamplingRate(1);
+        Exception shared = new IllegalStateException();
+        Try.newTry(() -> { throw shared; });
+        assertTrue(TryProvenance.of(shared).isPresent());
+        for (int i = 0; i < 2; i++) Try.newTry(() -> { throw shared; });
+        assertEquals(1, shared.getSuppressed().length);
+        assertEquals(Optional.empty(), TryProvenance.of(shared));
+    }
+
+    @Test
+    void concurrent() throws InterruptedException {
+        TryProvenance.setSamplingRate(1);
+        for (int round = 0; round < 100; round++) {
+            Exception exception = new IllegalStateException();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread thread = new Thread(() -> Try.newTry(() -> { throw exception; }));
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) thread.join();
+            assertEquals(1, exception.getSuppressed().length);
+        }
+    }
+
+    @Test
+    void suppressionDisabled() {
+        TryProvenance.setSamplingRate(1);
+        Exception exception = new Exception("message", null, false, true) {};
+        assertTrue(Try.newTry(() -> { throw exception; }).isFailure());
+        assertEquals(Optional.empty(), TryProvenance.of(exception));
+    }
+
+    @Test
+    void sampled() {
+        TryProvenance.setSamplingRate(0.5);
+        int captured = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (TryProvenance.of(stage().getThrowable()).isPresent()) captured++;
+        }
+        assertTrue(captured > 800 && captured < 1200, "captured " + captured);
+        assertThrows(IllegalArgumentException.class, () -> TryProvenance.setSamplingRate(2));
+        assertThrows(IllegalArgumentException.class, () -> TryProvenance.setMaxFrames(0));
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrySchedulerTest {
+
+    static final Exception exception = new IllegalStateException();
+
+    final TryScheduler scheduler = new TryScheduler(Thread::new, Duration.ofMillis(400));
+
+    @AfterEach
+    void afterEach() {
+        scheduler.close();
+    }
+
+    @Test
+    void fixedRate() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(5);
+        TryScheduler.Job job = scheduler.scheduleAtFixedRate(latch::countDown, Duration.ZERO, Duration.ofMillis(10));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        job.cancel();
+        assertTrue(job.isCancelled());
+        Thread.sleep(50);
+        TryScheduler.Statistics statistics = job.statistics();
+        assertTrue(statistics.runs() >= 5);
+        assertEquals(0, statistics.failures());
+        assertEquals(Try.value(null), statistics.lastResult().orElseThrow());
+        Thread.sleep(50);
+        assertEquals(statistics.runs(), job.statistics().runs());
+    }
+
+    @Test
+    void overrun() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        TryScheduler.Job job = scheduler.scheduleAtFixedRate(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            running.decrementAndGet();
+        }, Duration.ZERO, Duration.ofMillis(5));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        // the triggers while the first execution is blocked are skipped
+        awaitSkipped(job, 3);
+        assertEquals(0, job.statistics().runs());
+        release.countDown();
+        job.cancel();
+        scheduler.close();
+        assertEquals(1, maxRunning.get());
+        assertTrue(job.statistics().runs() >= 1);
+    }
+
+    static void awaitSkipped(TryScheduler.Job job, long skipped) throws InterruptedException {
+        for (int i = 0; i < 1000 && job.statistics().skipped() < skipped; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.statistics().skipped() >= skipped, "skipped " + job.statistics().skipped());
+    }
+
+    @Test
+    void backoff() throws InterruptedException {
+        long[] starts = new long[4];
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(starts.length);
+        TryScheduler.Job job = scheduler.scheduleWithFixedDelay(() -> {
+            int call = calls.getAndIncrement();
+            if (call < starts.length) {
+                starts[call] = System.nanoTime();
+                latch.countDown();
+            }
+            throw exception;
+        }, Duration.ZERO, Duration.ofMillis(20));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        job.cancel();
+        scheduler.close();
+        // the delay after each failure doubles: 40, 80 then 160ms
+        for (int i = 1; i < starts.length; i++) {
+            long gap = starts[i] - starts[i - 1];
+            assertTrue(gap >= Duration.ofMillis(20L << i).toNanos(), "gap " + i + " " + gap);
+        }
+        TryScheduler.Statistics statistics = job.statistics();
+        assertEquals(statistics.runs(), statistics.failures());
+        assertEquals(statistics.runs(), statistics.consecutiveFailures());
+        assertEquals(new Failure<>(exception), statistics.lastResult().orElseThrow());
+    }
+
+    @Test
+    void maxBackoff() throws InterruptedException {
+        // without the maximum backoff, the twentieth execution would start after hours
+        CountDownLatch latch = new CountDownLatch(20);
+        try (TryScheduler scheduler = new TryScheduler(Thread::new, Duration.ofMillis(10))) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                latch.countDown();
+                throw exception;
+            }, Duration.ZERO, Duration.ofMillis(10));
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void recovery() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        TryScheduler.Job job = scheduler.scheduleWithFixedDelay(() -> {
+            if (calls.incrementAndGet() <= 2) throw exception;
+            Thread.sleep(5);
+            latch.countDown();
+        }, Duration.ZERO, Duration.ofMillis(5));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        TryScheduler.Statistics statistics = job.statistics();
+        assertEquals(2, statistics.failures());
+        assertEquals(0, statistics.consecutiveFailures());
+        assertTrue(statistics.lastDuration().toNanos() >= Duration.ofMillis(5).toNanos());
+        assertTrue(statistics.averageDuration().compareTo(statistics.totalDuration()) <= 0);
+    }
+
+    @Test
+    void cancelled() throws InterruptedException {
+        TryScheduler.Job job = scheduler.scheduleAtFixedRate(() -> {}, Duration.ofHours(1), Duration.ofHours(1));
+        job.cancel();
+        WeakReference<TryScheduler.Job> reference = new WeakReference<>(job);
+        job = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    void close() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger ended = new AtomicInteger();
+        TryScheduler scheduler = new TryScheduler();
+        scheduler.scheduleWithFixedDelay(() -> {
+            started.countDown();
+            Thread.sleep(100);
+            ended.incrementAndGet();
+        }, Duration.ZERO, Duration.ofMillis(1));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        scheduler.close();
+        assertEquals(1, ended.get());
+        assertThrows(java.util.concurrent.RejectedExecutionException.class,
+                () -> scheduler.scheduleAtFixedRate(() -> {}, Duration.ZERO, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> this.scheduler.scheduleAtFixedRate(() -> {}, Duration.ZERO, Duration.ZERO));
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.dwilliam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryScopeTest {
+
+    static final Exception exception = new IOException();
+
+    @Test
+    void success() throws InterruptedException {
+        try (TryScope<Object> scope = TryScope.shutdownOnFailure()) {
+            TryScope.Fork<String> a = scope.fork(() -> "a");
+            TryScope.Fork<Integer> b = scope.fork(() -> 1);
+            TryScope.Fork<Void> c = scope.fork((TryProcedure) () -> {});
+            Try<List<Object>> joined = scope.join();
+            assertEquals(List.of("a", 1), joined.get().subList(0, 2));
+            assertNull(joined.get().get(2));
+            assertEquals(Try.value("a"), a.result());
+            assertEquals(1, b.result().get().intValue());
+            assertTrue(c.isDone());
+        }
+    }
+
+    @Test
+    void shutdownOnFailure() throws InterruptedException {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        TryScope.Fork<String> slow;
+        List<Thread> threads = new ArrayList<>();
+        try (TryScope<String> scope = TryScope.shutdownOnFailure(runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        })) {
+            slow = scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return "slow";
+            });
+            scope.fork(() -> { throw exception; });
+            assertEquals(new Failure<>(exception), scope.join());
+            assertTrue(scope.isShutdown());
+            assertInstanceOf(CancellationException.class, slow.result().getThrowable());
+
+            TryScope.Fork<String> late = scope.fork(() -> "late");
+            assertInstanceOf(CancellationException.class, late.result().getThrowable());
+        }
+        assertTrue(interrupted.get());
+        assertTrue(threads.stream().noneMatch(Thread::isAlive));
+    }
+
+    @Test
+    void collectAll() throws InterruptedException {
+        Exception other = new IllegalStateException();
+        try (TryScope<Integer> scope = TryScope.collectAll()) {
+            scope.fork(() -> { throw exception; });
+            TryScope.Fork<Integer> value = scope.fork(() -> {
+                Thread.sleep(50);
+                return 1;
+            });
+            scope.fork(() -> { throw other; });
+            Try<List<Integer>> joined = scope.join();
+            AccumulatedException accumulated = assertInstanceOf(AccumulatedException.class, joined.getThrowable());
+            assertEquals(List.of(exception, other), accumulated.throwables());
+            assertEquals(Try.value(1), value.result());
+            assertFalse(scope.isShutdown());
+        }
+    }
+
+    @Test
+    void collectAllShutdown() throws InterruptedException {
+        try (TryScope<Integer> scope = TryScope.collectAll()) {
+            TryScope.Fork<Integer> value = scope.fork(() -> 1);
+            TryScope.Fork<Integer> blocked = scope.fork(() -> {
+                new CountDownLatch(1).await();
+                return 2;
+            });
+            while (!value.isDone()) Thread.onSpinWait();
+            scope.shutdown();
+            AccumulatedException accumulated = assertInstanceOf(AccumulatedException.class, scope.join().getThrowable());
+            assertEquals(1, accumulated.size());
+            assertInstanceOf(CancellationException.class, accumulated.get(0));
+            assertInstanceOf(CancellationException.class, blocked.result().getThrowable());
+        }
+    }
+
+    @Test
+    void close() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        TryScope.Fork<Object> fork;
+        TryScope<Object> scope = TryScope.collectAll();
+        try (scope) {
+            fork = scope.fork(() -> {
+                started.countDown();
+                new CountDownLatch(1).await();
+                return null;
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+        }
+        assertInstanceOf(CancellationException.class, fork.result().getThrowable());
+        assertThrows(IllegalStateException.class, () -> scope.fork(() -> null));
+    }
+
+}
@@ -3,11 +3,19 @@ package com.dwilliam.utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -51,6 +59,28 @@ class TryTest {
         assertNull(nullTry.get());
     }
 
+    @Test
+    void getOrRethrow() {
+        assertEquals(0, success.getOrRethrow());
+        assertSame(exception, assertThrows(IllegalAccessException.class, () -> failure.getOrRethrow()));
+
+        assertNull(nullTry.getOrRethrow());
+    }
+
+    @Test
+    void adapters() {
+        TryFunction<Integer, Integer> function = x -> { if (x < 0) throw exception; return x + 1; };
+        assertEquals(List.of(1, 2), Stream.of(0, 1).map(function.asFunction()).collect(Collectors.toList()));
+        assertSame(exception, assertThrows(IllegalAccessException.class, () -> function.asFunction().apply(-1)));
+
+        TrySupplier<Integer> supplier = () -> { throw exception; };
+        assertSame(exception, assertThrows(IllegalAccessException.class, () -> supplier.asSupplier().get()));
+        assertEquals(1, ((TrySupplier<Integer>) () -> 1).asSupplier().get());
+
+        TryProcedure procedure = () -> { throw exception; };
+        assertSame(exception, assertThrows(IllegalAccessException.class, () -> procedure.asRunnable().run()));
+    }
+
     @SuppressWarnings("ThrowableNotThrown")
     @Test
     void getThrowable() {
@@ -237,4 +267,72 @@ class TryTest {
         assertThrows(NoSuchElementException.class, () -> nullTry.failed().get());
     }
 
+    @Test
+    void fold() {
+        assertEquals("0", success.fold(String::valueOf, t -> "failure"));
+        assertEquals("failure", failure.fold(String::valueOf, t -> "failure"));
+        assertEquals("null", nullTry.fold(String::valueOf, t -> "failure"));
+
+        assertEquals(1, success.foldToInt(x -> x + 1, t -> -1));
+        assertEquals(-1, failure.foldToInt(x -> x + 1, t -> -1));
+        assertEquals(1L, success.foldToLong(x -> x + 1L, t -> -1L));
+        assertEquals(-1L, failure.foldToLong(x -> x + 1L, t -> -1L));
+        assertEquals(0.5, success.foldToDouble(x -> x + 0.5, t -> -1));
+        assertEquals(-1, failure.foldToDouble(x -> x + 0.5, t -> -1));
+
+        assertThrows(NullPointerException.class, () -> success.fold(String::valueOf, null));
+        assertThrows(NullPointerException.class, () -> failure.fold(null, t -> "failure"));
+    }
+
+    @Test
+    void all() {
+        assertEquals(Try.value(List.of(1, 2)), Try.all(List.<TrySupplier<Integer>>of(() -> 1, () -> 2)));
+
+        Exception other = new IllegalStateException();
+        Try<List<Integer>> all = Try.all(List.<TrySupplier<Integer>>of(() -> { throw exception; }, () -> 1, () -> { throw other; }));
+        AccumulatedException accumulated = assertInstanceOf(AccumulatedException.class, all.getThrowable());
+        assertEquals(List.of(exception, other), accumulated.throwables());
+        assertEquals(exception, accumulated.getCause());
+    }
+
+    @Test
+    void validate() {
+        List<TryFunction<String, ?>> validators = List.of(
+                s -> { if (s.isEmpty()) throw new IllegalArgumentException("empty"); return s; },
+                s -> { if (s.length() > 3) throw new IllegalArgumentException("too long"); return s; },
+                s -> { if (!s.equals(s.toLowerCase())) throw new IllegalArgumentException("not lower case"); return s; });
+
+        assertEquals(Try.value("abc"), Try.validate("abc", validators));
+        AccumulatedException accumulated = assertInstanceOf(AccumulatedException.class, Try.validate("ABCD", validators).getThrowable());
+        assertEquals(2, accumulated.size());
+        assertEquals("too long", accumulated.get(0).getMessage());
+        assertEquals("not lower case", accumulated.get(1).getMessage());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertEquals(Try.value("abc"), Try.validate("abc", validators, executor));
+            assertEquals(1, ((AccumulatedException) Try.validate("", validators, executor).getThrowable()).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejected() {
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = command -> {
+            if (submitted.incrementAndGet() > 1) throw new RejectedExecutionException();
+            command.run();
+        };
+        Try<List<Integer>> all = Try.all(List.<TrySupplier<Integer>>of(() -> 1, () -> 2, () -> 3), executor);
+        AccumulatedException accumulated = assertInstanceOf(AccumulatedException.class, all.getThrowable());
+        assertEquals(2, accumulated.size());
+        assertInstanceOf(RejectedExecutionException.class, accumulated.get(0));
+
+        submitted.set(0);
+        List<TryFunction<String, ?>> validators = List.of(s -> s, s -> s);
+        assertInstanceOf(RejectedExecutionException.class,
+                ((AccumulatedException) Try.validate("abc", validators, executor).getThrowable()).get(0));
+    }
+
 }
\ No newline at end of file